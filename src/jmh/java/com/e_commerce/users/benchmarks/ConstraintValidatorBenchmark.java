@@ -0,0 +1,78 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.constraints.PasswordConstraintValidator;
+import com.e_commerce.users.constraints.UsernameConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.openjdk.jmh.annotations.*;
+import org.passay.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstraintValidatorBenchmark {
+    @Param({"username", "user.name_2024", "Invalid-Username", "user..name"})
+    private String username;
+
+    @Param({"Password1@", "Xy7#kLm!", "password", "Abc123!@#"})
+    private String password;
+
+    private UsernameConstraintValidator usernameValidator;
+
+    private PasswordConstraintValidator passwordValidator;
+
+    private ConstraintValidatorContext context;
+
+    private PasswordValidator passayValidator;
+
+    @Setup
+    public void createValidators() {
+        usernameValidator = new UsernameConstraintValidator();
+        passwordValidator = new PasswordConstraintValidator();
+        passwordValidator.initialize(null);
+        context = Stubs.noop(ConstraintValidatorContext.class);
+        passayValidator = new PasswordValidator(
+                new LengthRule(8, 16),
+                new CharacterRule(EnglishCharacterData.UpperCase, 1),
+                new CharacterRule(EnglishCharacterData.LowerCase, 1),
+                new CharacterRule(EnglishCharacterData.Digit, 1),
+                new CharacterRule(EnglishCharacterData.Special, 1),
+                new CharacterOccurrencesRule(3),
+                new IllegalSequenceRule(EnglishSequenceData.Alphabetical, 3, false),
+                new IllegalSequenceRule(EnglishSequenceData.Numerical, 3, false),
+                new IllegalSequenceRule(EnglishSequenceData.USQwerty, 3, false),
+                new WhitespaceRule()
+        );
+    }
+
+    @Benchmark
+    public boolean username() {
+        return usernameValidator.isValid(username, context);
+    }
+
+    @Benchmark
+    public boolean usernameStreamBaseline() {
+        return !username.isEmpty() && username.length() <= 64 &&
+                username.chars().allMatch(c -> (Character.isLetter(c) && Character.isLowerCase(c)) ||
+                        Character.isDigit(c) ||
+                        c == '.' || c == '_') &&
+                !username.contains("..");
+    }
+
+    @Benchmark
+    public boolean password() {
+        return passwordValidator.isValid(password, context);
+    }
+
+    @Benchmark
+    public List<String> passwordPassayBaseline() {
+        RuleResult result = passayValidator.validate(new PasswordData(password));
+
+        return result.isValid() ? List.of() : passayValidator.getMessages(result);
+    }
+}
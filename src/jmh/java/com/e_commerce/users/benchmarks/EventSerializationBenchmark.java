@@ -0,0 +1,52 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.events.EmailUpdate;
+import com.e_commerce.users.events.EventMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+    @Param({"jackson2-json", "event-json", "event-cbor"})
+    private String converterName;
+
+    private MessageConverter converter;
+
+    private EmailUpdate update;
+
+    private Message message;
+
+    @Setup
+    public void createConverter() {
+        converter = switch (converterName) {
+            case "jackson2-json" -> new Jackson2JsonMessageConverter();
+            case "event-json" -> new EventMessageConverter(EventMessageConverter.JSON_CONTENT_TYPE, EmailUpdate.class);
+            case "event-cbor" -> new EventMessageConverter(EventMessageConverter.CBOR_CONTENT_TYPE, EmailUpdate.class);
+            default -> throw new IllegalArgumentException(converterName);
+        };
+        update = new EmailUpdate("username", "username@email.com");
+        message = converter.toMessage(update, new MessageProperties());
+
+        System.out.printf("%n%s: %d bytes/message%n", converterName, message.getBody().length);
+    }
+
+    @Benchmark
+    public Message serialize() {
+        return converter.toMessage(update, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return converter.fromMessage(message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.UserRepository;
+import com.e_commerce.users.model.StoredCredentials;
+import com.e_commerce.users.model.User;
+import com.e_commerce.users.model.UserEmail;
+import com.e_commerce.users.model.UserInfo;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+final class InMemoryUserRepository {
+    private final Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<Long, User> usersById = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private InMemoryUserRepository() {
+
+    }
+
+    static UserRepository create() {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> repository.invoke(proxy, method.getName(), args));
+    }
+
+    private User save(User user) {
+        if (usersByUsername.putIfAbsent(user.getUsername(), user) != null) {
+            throw new DataIntegrityViolationException("Duplicated username " + user.getUsername());
+        }
+
+        user.setId(ids.incrementAndGet());
+        user.setVersion(0L);
+        usersById.put(user.getId(), user);
+
+        return user;
+    }
+
+    private static int update(User user, Long version, Runnable change) {
+        if (user == null) {
+            return 0;
+        }
+
+        synchronized (user) {
+            if (version != null && !version.equals(user.getVersion())) {
+                return 0;
+            }
+
+            change.run();
+            user.setVersion(user.getVersion() + 1);
+
+            return 1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(Object proxy, String method, Object[] args) {
+        return switch (method) {
+            case "existsUserByUsername" -> usersByUsername.containsKey((String) args[0]);
+            case "findExistingUsernames" -> ((Collection<String>) args[0]).stream()
+                    .filter(usersByUsername::containsKey)
+                    .collect(Collectors.toSet());
+            case "streamAllUsernames" -> Set.copyOf(usersByUsername.keySet()).stream();
+            case "save", "saveAndFlush" -> save((User) args[0]);
+            case "saveAll" -> {
+                ((Iterable<User>) args[0]).forEach(this::save);
+                yield args[0];
+            }
+            case "findOptionalUserByUsername", "findOptionalUncachedUserByUsername" ->
+                    Optional.ofNullable(usersByUsername.get((String) args[0]));
+            case "findOptionalUserInfoByUsername" -> Optional.ofNullable(usersByUsername.get((String) args[0]))
+                    .map(user -> new UserInfo(user.getDescription(), user.getVersion()));
+            case "findOptionalUserEmailByUsername" -> Optional.ofNullable(usersByUsername.get((String) args[0]))
+                    .map(user -> new UserEmail(user.getEmail(), user.getVersion()));
+            case "findOptionalStoredCredentialsByUsername" -> Optional.ofNullable(usersByUsername.get((String) args[0]))
+                    .map(user -> new StoredCredentials(user.getId(), user.getPassword(), user.getVersion()));
+            case "updateUserPassword" -> {
+                User user = usersById.get((Long) args[0]);
+                yield update(user, (Long) args[1], () -> user.setPassword((String) args[2]));
+            }
+            case "updateUserEmail" -> {
+                User user = usersById.get((Long) args[0]);
+                yield update(user, (Long) args[1], () -> {
+                    user.setEmail((String) args[2]);
+                    user.setPassword((String) args[3]);
+                });
+            }
+            case "updateUserInfo" -> {
+                User user = usersByUsername.get((String) args[0]);
+                Long version = args.length == 3 ? (Long) args[1] : null;
+                UserInfo userInfo = (UserInfo) args[args.length - 1];
+                yield update(user, version, () -> user.setDescription(userInfo.description()));
+            }
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryUserRepository";
+            default -> throw new UnsupportedOperationException(method);
+        };
+    }
+}
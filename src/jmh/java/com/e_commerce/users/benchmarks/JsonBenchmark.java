@@ -0,0 +1,73 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.model.EmailChange;
+import com.e_commerce.users.model.PasswordChange;
+import com.e_commerce.users.model.User;
+import com.e_commerce.users.model.UserCredentials;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    private final ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+
+    private final User user = new User("username", "username@email.com", "a merchant", "Password1@");
+
+    private final PasswordChange passwordChange = new PasswordChange(
+            new UserCredentials("username", "Password1@"), "Password2@");
+
+    private final EmailChange emailChange = new EmailChange(
+            new UserCredentials("username", "Password1@"), "new_username@email.com");
+
+    private byte[] userJson;
+
+    private byte[] passwordChangeJson;
+
+    private byte[] emailChangeJson;
+
+    @Setup
+    public void serializeModels() throws IOException {
+        userJson = mapper.writeValueAsBytes(user);
+        passwordChangeJson = mapper.writeValueAsBytes(passwordChange);
+        emailChangeJson = mapper.writeValueAsBytes(emailChange);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return mapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User readUser() throws IOException {
+        return mapper.readValue(userJson, User.class);
+    }
+
+    @Benchmark
+    public byte[] writePasswordChange() throws IOException {
+        return mapper.writeValueAsBytes(passwordChange);
+    }
+
+    @Benchmark
+    public PasswordChange readPasswordChange() throws IOException {
+        return mapper.readValue(passwordChangeJson, PasswordChange.class);
+    }
+
+    @Benchmark
+    public byte[] writeEmailChange() throws IOException {
+        return mapper.writeValueAsBytes(emailChange);
+    }
+
+    @Benchmark
+    public EmailChange readEmailChange() throws IOException {
+        return mapper.readValue(emailChangeJson, EmailChange.class);
+    }
+}
@@ -0,0 +1,148 @@
+package com.e_commerce.users.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadGenerator {
+    private static final int MAX_LATENCY_MILLIS = 60_000;
+    private static final List<String> SERVER_METRICS = List.of(
+            "jvm.threads.live",
+            "jvm.threads.peak",
+            "tomcat.threads.busy",
+            "users.reads.active",
+            "users.reads.queue",
+            "hikaricp.connections.active");
+
+    private final HttpClient client;
+    private final HttpRequest request;
+    private final long deadline;
+    private final CountDownLatch finished;
+    private final AtomicLongArray latencies = new AtomicLongArray(MAX_LATENCY_MILLIS + 1);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+    private final LongAdder otherStatuses = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private LoadGenerator(URI uri, int connections, Duration duration) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.request = HttpRequest.newBuilder(uri).GET().build();
+        this.deadline = System.nanoTime() + duration.toNanos();
+        this.finished = new CountDownLatch(connections);
+    }
+
+    private void next() {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    long millis = (System.nanoTime() - start) / 1_000_000;
+                    latencies.incrementAndGet((int) Math.min(millis, MAX_LATENCY_MILLIS));
+
+                    if (e != null) {
+                        failures.increment();
+                    } else if (response.statusCode() / 100 == 2) {
+                        successes.increment();
+                    } else if (response.statusCode() == 503) {
+                        unavailable.increment();
+                    } else {
+                        otherStatuses.increment();
+                    }
+
+                    next();
+                });
+    }
+
+    private void printServerMetrics(URI metrics) {
+        ObjectMapper mapper = new ObjectMapper();
+
+        for (String name : SERVER_METRICS) {
+            try {
+                HttpResponse<String> response = client.send(
+                        HttpRequest.newBuilder(metrics.resolve(metrics.getPath() + "/" + name)).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+
+                JsonNode value = mapper.readTree(response.body()).path("measurements").path(0).path("value");
+
+                System.out.printf("%s: %s%n", name, value.isMissingNode() ? "unavailable" : value.asText());
+            } catch (IOException e) {
+                System.out.printf("%s: unavailable (%s)%n", name, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                return;
+            }
+        }
+    }
+
+    private long percentile(long total, double percentile) {
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+
+        for (int i = 0; i < latencies.length(); i++) {
+            seen += latencies.get(i);
+            if (seen >= threshold) {
+                return i;
+            }
+        }
+
+        return MAX_LATENCY_MILLIS;
+    }
+
+    private void run(int connections, Duration duration, URI metrics) throws InterruptedException {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < connections; i++) {
+            next();
+        }
+
+        finished.await();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = successes.sum() + unavailable.sum() + otherStatuses.sum() + failures.sum();
+
+        System.out.printf("%s with %d connections for %s%n", request.uri(), connections, duration);
+        System.out.printf("requests: %d (%.0f req/s)%n", total, total / seconds);
+        System.out.printf("2xx: %d, 503: %d, other: %d, failed: %d%n",
+                successes.sum(), unavailable.sum(), otherStatuses.sum(), failures.sum());
+        System.out.printf("latency p50: %d ms, p99: %d ms, p99.9: %d ms%n",
+                percentile(total, 0.5), percentile(total, 0.99), percentile(total, 0.999));
+
+        if (metrics != null) {
+            printServerMetrics(metrics);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Usage: LoadGenerator <url> <connections> <duration seconds> [metrics url]");
+            System.exit(1);
+        }
+
+        int connections = Integer.parseInt(args[1]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+
+        URI metrics = args.length == 4 ? URI.create(args[3]) : null;
+
+        new LoadGenerator(URI.create(args[0]), connections, duration).run(connections, duration, metrics);
+    }
+}
@@ -0,0 +1,38 @@
+package com.e_commerce.users.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+
+    private PasswordEncoder encoder;
+
+    private String encodedPassword;
+
+    @Setup
+    public void createEncoder() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = encoder.encode("Password1@");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("Password1@");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("Password1@", encodedPassword);
+    }
+}
@@ -0,0 +1,40 @@
+package com.e_commerce.users.benchmarks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class Stubs {
+    private static final Map<Class<?>, Object> stubs = new ConcurrentHashMap<>();
+
+    private Stubs() {
+
+    }
+
+    static <T> T noop(Class<T> type) {
+        return type.cast(stubs.computeIfAbsent(type, Stubs::createNoop));
+    }
+
+    private static Object createNoop(Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Noop" + type.getSimpleName();
+                    default -> {
+                        Class<?> returnType = method.getReturnType();
+
+                        if (returnType.isInstance(proxy)) {
+                            yield proxy;
+                        } else if (returnType.isInterface()) {
+                            yield noop(returnType);
+                        } else if (returnType.isPrimitive() && returnType != void.class) {
+                            yield Array.get(Array.newInstance(returnType, 1), 0);
+                        }
+
+                        yield null;
+                    }
+                });
+    }
+}
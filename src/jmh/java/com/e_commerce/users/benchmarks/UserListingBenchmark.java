@@ -0,0 +1,167 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.model.UserSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListingBenchmark {
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private static final String KEYSET_QUERY =
+            "select username, email, description from user where username > ? order by username limit ?";
+    private static final String PREFIX_QUERY =
+            "select username, email, description from user where username like ? escape '!' and username > ? " +
+                    "order by username limit ?";
+    private static final String OFFSET_QUERY =
+            "select username, email, description from user order by username limit ? offset ?";
+
+    @Param("jdbc:mysql://localhost:3306/mydatabase?rewriteBatchedStatements=true")
+    public String url;
+
+    @Param("myuser")
+    public String user;
+
+    @Param("secret")
+    public String password;
+
+    @Param("10000000")
+    public int rows;
+
+    @Param({"0", "1000000", "5000000", "9999000"})
+    public int depth;
+
+    @Param("100")
+    public int limit;
+
+    private Connection connection;
+    private PreparedStatement keyset;
+    private PreparedStatement prefix;
+    private PreparedStatement offset;
+    private String cursor;
+    private String cursorPrefix;
+
+    private static String username(long i) {
+        return String.format("user%08d", i);
+    }
+
+    private void seed() throws SQLException {
+        long existing;
+        long nextId;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "select count(*) from user where username like 'user________'")) {
+            result.next();
+            existing = result.getLong(1);
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select coalesce(max(id), 0) from user")) {
+            result.next();
+            nextId = result.getLong(1) + 1;
+        }
+
+        if (existing >= rows) {
+            return;
+        }
+
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert ignore into user (id, username, email, description, password, version) " +
+                        "values (?, ?, ?, ?, ?, 0)")) {
+            for (long i = 0; i < rows; i++) {
+                String username = username(i);
+
+                insert.setLong(1, nextId++);
+                insert.setString(2, username);
+                insert.setString(3, username + "@email.com");
+                insert.setString(4, "a merchant");
+                insert.setString(5, "$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmarkbe");
+                insert.addBatch();
+
+                if ((i + 1) % SEED_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+
+            insert.executeBatch();
+
+            try (PreparedStatement sequence = connection.prepareStatement(
+                    "update user_seq set next_val = greatest(next_val, ?)")) {
+                sequence.setLong(1, nextId);
+                sequence.executeUpdate();
+            }
+
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Setup
+    public void connect() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+
+        seed();
+
+        keyset = connection.prepareStatement(KEYSET_QUERY);
+        prefix = connection.prepareStatement(PREFIX_QUERY);
+        offset = connection.prepareStatement(OFFSET_QUERY);
+        cursor = depth == 0 ? "" : username(depth - 1);
+        cursorPrefix = username(depth).substring(0, 9);
+    }
+
+    @TearDown
+    public void disconnect() throws SQLException {
+        connection.close();
+    }
+
+    private static List<UserSummary> read(PreparedStatement statement) throws SQLException {
+        List<UserSummary> users = new ArrayList<>();
+
+        try (ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                users.add(new UserSummary(result.getString(1), result.getString(2), result.getString(3)));
+            }
+        }
+
+        return users;
+    }
+
+    @Benchmark
+    public List<UserSummary> keysetPage() throws SQLException {
+        keyset.setString(1, cursor);
+        keyset.setInt(2, limit);
+
+        return read(keyset);
+    }
+
+    @Benchmark
+    public List<UserSummary> prefixPage() throws SQLException {
+        prefix.setString(1, cursorPrefix + "%");
+        prefix.setString(2, cursor);
+        prefix.setInt(3, limit);
+
+        return read(prefix);
+    }
+
+    @Benchmark
+    public List<UserSummary> offsetPageBaseline() throws SQLException {
+        offset.setInt(1, limit);
+        offset.setInt(2, depth);
+
+        return read(offset);
+    }
+}
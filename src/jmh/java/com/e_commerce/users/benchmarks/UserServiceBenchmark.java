@@ -0,0 +1,107 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.UserRepository;
+import com.e_commerce.users.UserService;
+import com.e_commerce.users.events.EmailUpdate;
+import com.e_commerce.users.events.EventMessageConverter;
+import com.e_commerce.users.events.EventOutbox;
+import com.e_commerce.users.events.OutboxEventRepository;
+import com.e_commerce.users.indexes.UsernameFilter;
+import com.e_commerce.users.indexes.UsernameIndex;
+import com.e_commerce.users.model.*;
+import com.e_commerce.users.reads.BoundedReadExecutor;
+import com.e_commerce.users.reads.ReadCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    private static final int USERS = 1_000;
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private UserService service;
+
+    @Setup
+    public void createService() {
+        UserRepository repository = InMemoryUserRepository.create();
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        UsernameFilter usernameFilter = new UsernameFilter(repository, 1_000_000, 0.01, false);
+
+        service = new UserService(repository, passwordEncoder,
+                new EventOutbox(Stubs.noop(OutboxEventRepository.class),
+                        new EventMessageConverter(EventMessageConverter.JSON_CONTENT_TYPE, EmailUpdate.class)),
+                usernameFilter, new UsernameIndex(repository, new SimpleMeterRegistry(), 4096),
+                Stubs.noop(Validator.class),
+                new BoundedReadExecutor(new SimpleMeterRegistry(), 4, 1_000),
+                new ReadCoalescer(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        for (int i = 0; i < USERS; i++) {
+            service.registerUser(new User("username" + i, "username" + i + "@email.com",
+                    "a merchant", "Password1@"));
+        }
+
+        usernameFilter.warm();
+    }
+
+    @State(Scope.Thread)
+    public static class Target {
+        private final String[] usernames = new String[USERS];
+
+        private int next;
+
+        @Setup
+        public void createUsernames() {
+            for (int i = 0; i < USERS; i++) {
+                usernames[i] = "username" + i;
+            }
+        }
+
+        private String nextUsername() {
+            next = (next + 1) % USERS;
+
+            return usernames[next];
+        }
+    }
+
+    @Benchmark
+    public UserInfo retrieveUserInfo(Target target) {
+        return service.retrieveUserInfo(target.nextUsername());
+    }
+
+    @Benchmark
+    public UserEmail retrieveUserEmail(Target target) {
+        return service.retrieveUserEmail(target.nextUsername());
+    }
+
+    @Benchmark
+    public void updateUserInfo(Target target) {
+        service.updateUserInfo(new UserInfoChange(target.nextUsername(), new UserInfo("a buyer")), null);
+    }
+
+    @Benchmark
+    public void updateUserEmail(Target target) {
+        String username = target.nextUsername();
+
+        service.updateUserEmail(new EmailChange(
+                new UserCredentials(username, "Password1@"), username + "@other.com"), null);
+    }
+
+    @Benchmark
+    public void registerUser() {
+        long i = registrations.incrementAndGet();
+
+        service.registerUser(new User("new_username" + i, "new_username" + i + "@email.com",
+                "a merchant", "Password1@"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.UserRepository;
+import com.e_commerce.users.UserService;
+import com.e_commerce.users.events.EmailUpdate;
+import com.e_commerce.users.events.EventMessageConverter;
+import com.e_commerce.users.events.EventOutbox;
+import com.e_commerce.users.events.OutboxEventRepository;
+import com.e_commerce.users.indexes.UsernameFilter;
+import com.e_commerce.users.indexes.UsernameIndex;
+import com.e_commerce.users.model.User;
+import com.e_commerce.users.model.UsernameAvailability;
+import com.e_commerce.users.reads.BoundedReadExecutor;
+import com.e_commerce.users.reads.ReadCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsernameAvailabilityBenchmark {
+    private static final int USERS = 1_000;
+
+    @Param({"false", "true"})
+    public boolean authoritative;
+
+    @Param({"0", "500"})
+    public long queryLatencyMicros;
+
+    private UserService service;
+
+    private UserRepository withQueryLatency(UserRepository repository) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findExistingUsernames")) {
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(queryLatencyMicros));
+                    }
+
+                    try {
+                        return method.invoke(repository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Setup
+    public void createService() {
+        UserRepository repository = InMemoryUserRepository.create();
+        UsernameFilter usernameFilter = new UsernameFilter(repository, 1_000_000, 0.01, authoritative);
+
+        service = new UserService(withQueryLatency(repository), new BCryptPasswordEncoder(4),
+                new EventOutbox(Stubs.noop(OutboxEventRepository.class),
+                        new EventMessageConverter(EventMessageConverter.JSON_CONTENT_TYPE, EmailUpdate.class)),
+                usernameFilter, new UsernameIndex(repository, new SimpleMeterRegistry(), 4096),
+                Stubs.noop(Validator.class),
+                new BoundedReadExecutor(new SimpleMeterRegistry(), 4, 1_000),
+                new ReadCoalescer(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        for (int i = 0; i < USERS; i++) {
+            service.registerUser(new User("username" + i, "username" + i + "@email.com",
+                    "a merchant", "Password1@"));
+        }
+
+        usernameFilter.warm();
+    }
+
+    @State(Scope.Thread)
+    public static class Target {
+        private int next;
+
+        private String nextUsername() {
+            next = (next + 1) % (2 * USERS);
+
+            return next < USERS ? "username" + next : "absent_username" + next;
+        }
+    }
+
+    @Benchmark
+    public UsernameAvailability checkUsernameAvailability(Target target) {
+        return service.checkUsernameAvailability(target.nextUsername(), 3);
+    }
+}
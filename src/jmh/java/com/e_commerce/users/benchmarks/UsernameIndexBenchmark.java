@@ -0,0 +1,81 @@
+package com.e_commerce.users.benchmarks;
+
+import com.e_commerce.users.UserRepository;
+import com.e_commerce.users.indexes.UsernameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsernameIndexBenchmark {
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789._";
+
+    @Param({"1000000", "10000000"})
+    public int usernames;
+
+    @Param("10")
+    public int limit;
+
+    private UsernameIndex index;
+
+    private static String username(Random random) {
+        StringBuilder username = new StringBuilder();
+
+        for (int i = 0, length = 6 + random.nextInt(14); i < length; i++) {
+            username.append(ALPHABET.charAt(random.nextInt(ALPHABET.length() - (i == 0 ? 2 : 0))));
+        }
+
+        return username.toString();
+    }
+
+    @Setup
+    public void createIndex() {
+        Random random = new Random(42);
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> Stream.generate(() -> username(random)).limit(usernames));
+
+        index = new UsernameIndex(repository, new SimpleMeterRegistry(), 4096);
+        index.warm();
+
+        System.out.printf("%nUsername index: %d usernames, %d bytes, %d bytes per million usernames%n",
+                index.size(), index.memoryBytes(), index.memoryBytes() * 1_000_000 / index.size());
+    }
+
+    @State(Scope.Thread)
+    public static class Prefixes {
+        private final String[] prefixes = new String[1024];
+
+        private int next;
+
+        @Setup
+        public void createPrefixes() {
+            Random random = new Random();
+
+            for (int i = 0; i < prefixes.length; i++) {
+                prefixes[i] = username(random).substring(0, 1 + i % 4);
+            }
+        }
+
+        private String nextPrefix() {
+            next = (next + 1) & (prefixes.length - 1);
+
+            return prefixes[next];
+        }
+    }
+
+    @Benchmark
+    public List<String> suggest(Prefixes prefixes) {
+        return index.suggest(prefixes.nextPrefix(), limit);
+    }
+}
@@ -1,20 +1,80 @@
 package com.e_commerce.users;
 
+import com.e_commerce.users.constraints.UsernameConstraint;
+import com.e_commerce.users.exceptions.TooManyUsernamesException;
+import com.e_commerce.users.exports.UserExporter;
 import com.e_commerce.users.model.*;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final UserService service;
+    private final UserExporter exporter;
+    private final int maxBatchGetUsernames;
 
-    public UserController(UserService service) {
+    public UserController(UserService service,
+                          UserExporter exporter,
+                          @Value("${users.batch-get.max-usernames}") int maxBatchGetUsernames) {
         this.service = service;
+        this.exporter = exporter;
+        this.maxBatchGetUsernames = maxBatchGetUsernames;
+    }
+
+    private List<String> checkBatchSize(UsernameBatch batch) {
+        if (batch.usernames().size() > maxBatchGetUsernames) {
+            throw new TooManyUsernamesException(maxBatchGetUsernames);
+        }
+
+        return batch.usernames();
+    }
+
+    private static <T> ResponseEntity<T> withETag(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+
+        if (version != null) {
+            builder.eTag("\"" + version + "\"");
+        }
+
+        return builder.body(body);
+    }
+
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
     }
 
     @PostMapping(path = "/register", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -24,41 +84,170 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PostMapping(path = "/register/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<RegistrationResult> registerUsers(
+            @RequestBody
+            @NotEmpty(message = "Users must be provided.")
+            @Size(max = 1000, message = "Up to 1000 users can be registered at once.")
+            List<User> users) {
+        return service.registerUsers(users);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public UserPage listUsers(
+            @RequestParam(required = false)
+            @Size(max = 64, message = "Prefix can only contain up to 64 characters.")
+            String prefix,
+            @RequestParam(required = false)
+            @Size(max = 64, message = "Cursor can only contain up to 64 characters.")
+            String after,
+            @RequestParam(defaultValue = "100")
+            @Min(value = 1, message = "Limit must be between 1 and 1000.")
+            @Max(value = 1000, message = "Limit must be between 1 and 1000.")
+            int limit) {
+        return service.listUsers(prefix, after, limit);
+    }
+
+    @GetMapping(path = "/availability/{username}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public UsernameAvailability checkUsernameAvailability(
+            @PathVariable
+            @UsernameConstraint
+            String username,
+            @RequestParam(defaultValue = "3")
+            @Min(value = 0, message = "Alternatives must be between 0 and 10.")
+            @Max(value = 10, message = "Alternatives must be between 0 and 10.")
+            int alternatives) {
+        return service.checkUsernameAvailability(username, alternatives);
+    }
+
+    @GetMapping(path = "/suggestions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<String> suggestUsernames(
+            @RequestParam
+            @Size(min = 1, max = 64, message = "Prefix must contain between 1 and 64 characters.")
+            String prefix,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be between 1 and 100.")
+            @Max(value = 100, message = "Limit must be between 1 and 100.")
+            int limit) {
+        return service.suggestUsernames(prefix, limit);
+    }
+
     @GetMapping(path = "/{username}/info", produces = MediaType.APPLICATION_JSON_VALUE)
-    public UserInfo retrieveUserInfo(
+    public CompletableFuture<ResponseEntity<UserInfo>> retrieveUserInfo(
             @PathVariable
             @Valid
             @Size(max = 64, message = "Username can only contain up to 64 characters.")
             String username) {
-        return service.retrieveUserInfo(username);
+        return service.retrieveUserInfoAsync(username)
+                .thenApply(userInfo -> withETag(userInfo, userInfo.version()));
     }
 
     @GetMapping(path = "/{username}/email", produces = MediaType.APPLICATION_JSON_VALUE)
-    public UserEmail retrieveUserEmail(
+    public CompletableFuture<ResponseEntity<UserEmail>> retrieveUserEmail(
             @PathVariable
             @Valid
             @Size(max = 64, message = "Username can only contain up to 64 characters.")
             String username) {
-        return service.retrieveUserEmail(username);
+        return service.retrieveUserEmailAsync(username)
+                .thenApply(userEmail -> withETag(userEmail, userEmail.version()));
+    }
+
+    @PostMapping(path = "/info:batchGet",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public BatchGetResult<UserInfo> retrieveUsersInfo(@RequestBody @Valid UsernameBatch batch) {
+        return service.retrieveUsersInfo(checkBatchSize(batch));
+    }
+
+    @PostMapping(path = "/email:batchGet",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public BatchGetResult<UserEmail> retrieveUsersEmail(@RequestBody @Valid UsernameBatch batch) {
+        return service.retrieveUsersEmail(checkBatchSize(batch));
+    }
+
+    private static double qValue(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzip = null;
+        Double any = null;
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = qValue(parameters);
+            } else if (name.equals("*")) {
+                any = qValue(parameters);
+            }
+        }
+
+        if (gzip != null) {
+            return gzip > 0;
+        }
+
+        return any != null && any > 0;
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (!acceptsGzip(acceptEncoding)) {
+            exporter.export(response.getOutputStream());
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE)) {
+            exporter.export(out);
+        }
     }
 
     @PutMapping(path = "/update/password", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> changeUserPassword(@RequestBody @Valid PasswordChange change) {
-        service.updateUserPassword(change);
+    public ResponseEntity<?> changeUserPassword(@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody @Valid PasswordChange change) {
+        service.updateUserPassword(change, parseIfMatch(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping(path = "/update/email", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> changeUserEmail(@RequestBody @Valid EmailChange change) {
-        service.updateUserEmail(change);
+    public ResponseEntity<?> changeUserEmail(@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody @Valid EmailChange change) {
+        service.updateUserEmail(change, parseIfMatch(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping(path = "/update/info", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> changeUserInfo(@RequestBody @Valid UserInfoChange change) {
-        service.updateUserInfo(change);
+    public ResponseEntity<?> changeUserInfo(@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                            @RequestBody @Valid UserInfoChange change) {
+        service.updateUserInfo(change, parseIfMatch(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
@@ -1,13 +1,22 @@
 package com.e_commerce.users;
 
+import com.e_commerce.users.exceptions.ConcurrencyLimitExceededException;
 import com.e_commerce.users.exceptions.DuplicatedUsernameException;
+import com.e_commerce.users.exceptions.PasswordHashingUnavailableException;
+import com.e_commerce.users.exceptions.TooManyUsernamesException;
 import com.e_commerce.users.exceptions.UserNotFoundException;
+import com.e_commerce.users.exceptions.UserPreconditionFailedException;
+import com.e_commerce.users.exceptions.UserReadsUnavailableException;
+import com.e_commerce.users.exceptions.UserUpdateConflictException;
 import com.e_commerce.users.exceptions.UsernameNotFoundException;
 import org.springframework.amqp.AmqpException;
 import org.springframework.context.MessageSourceResolvable;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.method.ParameterValidationResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -50,6 +59,18 @@ public class UserExceptionAdvice {
         return problemDetail;
     }
 
+    @ExceptionHandler({PasswordHashingUnavailableException.class, UserReadsUnavailableException.class,
+            ConcurrencyLimitExceededException.class})
+    public ResponseEntity<ProblemDetail> handleServiceUnavailable(RuntimeException e) {
+        ProblemDetail problemDetail = ProblemDetail
+                .forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problemDetail.setTitle("Service Unavailable");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problemDetail);
+    }
+
     @ResponseStatus(HttpStatus.CONFLICT)
     @ExceptionHandler(DuplicatedUsernameException.class)
     public ProblemDetail handleDuplicatedUserName(DuplicatedUsernameException e) {
@@ -60,6 +81,36 @@ public class UserExceptionAdvice {
         return problemDetail;
     }
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(UserUpdateConflictException.class)
+    public ProblemDetail handleUserUpdateConflict(UserUpdateConflictException e) {
+        ProblemDetail problemDetail = ProblemDetail
+                .forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problemDetail.setTitle("Concurrent Update");
+
+        return problemDetail;
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        ProblemDetail problemDetail = ProblemDetail
+                .forStatusAndDetail(HttpStatus.CONFLICT, "User was concurrently updated, try again.");
+        problemDetail.setTitle("Concurrent Update");
+
+        return problemDetail;
+    }
+
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ExceptionHandler(UserPreconditionFailedException.class)
+    public ProblemDetail handleUserPreconditionFailed(UserPreconditionFailedException e) {
+        ProblemDetail problemDetail = ProblemDetail
+                .forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        problemDetail.setTitle("Precondition Failed");
+
+        return problemDetail;
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(UserNotFoundException.class)
     public ProblemDetail handleUserNotFound(UserNotFoundException e) {
@@ -80,6 +131,12 @@ public class UserExceptionAdvice {
         return problemDetail;
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(TooManyUsernamesException.class)
+    public ProblemDetail handleTooManyUsernames(TooManyUsernamesException e) {
+        return buildProblemDetail(List.of(e.getMessage()));
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(HandlerMethodValidationException.class)
     public ProblemDetail handleHandlerMethodValidation(HandlerMethodValidationException e) {
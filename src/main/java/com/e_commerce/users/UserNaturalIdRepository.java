@@ -0,0 +1,27 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.model.User;
+import com.e_commerce.users.model.UserInfo;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    @Transactional(readOnly = true)
+    Optional<User> findOptionalUserByUsername(String username);
+
+    @Transactional(readOnly = true)
+    Optional<User> findOptionalUncachedUserByUsername(String username);
+
+    @Transactional
+    int updateUserPassword(Long id, Long version, String password);
+
+    @Transactional
+    int updateUserEmail(Long id, Long version, String email, String password);
+
+    @Transactional
+    int updateUserInfo(String username, UserInfo userInfo);
+
+    @Transactional
+    int updateUserInfo(String username, Long version, UserInfo userInfo);
+}
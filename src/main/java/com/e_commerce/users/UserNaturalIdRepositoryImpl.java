@@ -0,0 +1,95 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.model.User;
+import com.e_commerce.users.model.UserInfo;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    private final EntityManager entityManager;
+
+    UserNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    private <T> T bypassingCache(Supplier<T> load) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+
+        session.setCacheMode(CacheMode.REFRESH);
+        try {
+            return load.get();
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
+
+    private Optional<User> find(Long id) {
+        return bypassingCache(() -> Optional.ofNullable(entityManager.find(User.class, id)));
+    }
+
+    private Optional<User> load(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+
+    private Optional<User> loadForUpdate(String username) {
+        return bypassingCache(() -> entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .with(new LockOptions(LockMode.PESSIMISTIC_WRITE))
+                .loadOptional(username));
+    }
+
+    private int update(Optional<User> user, Long version, Consumer<User> change) {
+        if (user.isEmpty() || (version != null && !version.equals(user.get().getVersion()))) {
+            return 0;
+        }
+
+        change.accept(user.get());
+        entityManager.flush();
+
+        return 1;
+    }
+
+    @Override
+    public Optional<User> findOptionalUserByUsername(String username) {
+        return load(username);
+    }
+
+    @Override
+    public Optional<User> findOptionalUncachedUserByUsername(String username) {
+        return bypassingCache(() -> load(username));
+    }
+
+    @Override
+    public int updateUserPassword(Long id, Long version, String password) {
+        return update(find(id), version, user -> user.setPassword(password));
+    }
+
+    @Override
+    public int updateUserEmail(Long id, Long version, String email, String password) {
+        return update(find(id), version, user -> {
+            user.setEmail(email);
+            user.setPassword(password);
+        });
+    }
+
+    @Override
+    public int updateUserInfo(String username, UserInfo userInfo) {
+        return update(loadForUpdate(username), null, user -> user.setDescription(userInfo.description()));
+    }
+
+    @Override
+    public int updateUserInfo(String username, Long version, UserInfo userInfo) {
+        return update(bypassingCache(() -> load(username)), version,
+                user -> user.setDescription(userInfo.description()));
+    }
+}
@@ -1,31 +1,74 @@
 package com.e_commerce.users;
 
-import com.e_commerce.users.model.User;
-import com.e_commerce.users.model.UserInfo;
+import com.e_commerce.users.model.*;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
 
-public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsUserByUsername(String username);
 
-    Optional<UserInfo> findOptionalUserInfoByUsername(String username);
+    @Query("select username from User where username in ?1")
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select username from User")
+    Stream<String> streamAllUsernames();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.e_commerce.users.model.UserExportEntry(u.id, u.username, u.email, u.description) " +
+            "from User u where u.id > ?1 order by u.id")
+    Stream<UserExportEntry> streamUserExportEntriesAfter(Long id, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    default Optional<UserInfo> findOptionalUserInfoByUsername(String username) {
+        return findOptionalUserByUsername(username)
+                .map(user -> new UserInfo(user.getDescription(), user.getVersion()));
+    }
+
+    @Query("select new com.e_commerce.users.model.UserInfoEntry(u.username, u.description) " +
+            "from User u where u.username in ?1")
+    List<UserInfoEntry> findUserInfoEntriesByUsernames(Collection<String> usernames);
+
+    @Query("select new com.e_commerce.users.model.UserEmailEntry(u.username, u.email) " +
+            "from User u where u.username in ?1")
+    List<UserEmailEntry> findUserEmailEntriesByUsernames(Collection<String> usernames);
 
-    @Query("select email from User where username = ?1")
-    Optional<String> findOptionalUserEmailByUsername(String username);
+    @Query("select new com.e_commerce.users.model.UserSummary(u.username, u.email, u.description) " +
+            "from User u where u.username > ?1 order by u.username")
+    List<UserSummary> findUserSummariesAfter(String username, Pageable pageable);
 
-    @Modifying(clearAutomatically = true)
-    @Query("update User u set u.password = ?3 where u.username = ?1 and u.password = ?2")
-    int updateUserPassword(String username, String oldPassword, String newPassword);
+    @Query("select new com.e_commerce.users.model.UserSummary(u.username, u.email, u.description) " +
+            "from User u where u.username like ?1 escape '!' and u.username > ?2 order by u.username")
+    List<UserSummary> findUserSummariesLikeAfter(String pattern, String username, Pageable pageable);
 
-    @Modifying(clearAutomatically = true)
-    @Query("update User u set u.email = ?3 where u.username = ?1 and u.password = ?2")
-    int updateUserEmail(String username, String password, String email);
+    @Transactional(readOnly = true)
+    default Optional<UserEmail> findOptionalUserEmailByUsername(String username) {
+        return findOptionalUserByUsername(username)
+                .map(user -> new UserEmail(user.getEmail(), user.getVersion()));
+    }
 
-    @Modifying(clearAutomatically = true)
-    @Query("update User u set u.description = :#{#userInfo.description()} where u.username = ?1")
-    int updateUserInfo(String username, @Param("userInfo") UserInfo userInfo);
+    @Transactional(readOnly = true)
+    default Optional<StoredCredentials> findOptionalStoredCredentialsByUsername(String username) {
+        return findOptionalUncachedUserByUsername(username)
+                .map(user -> new StoredCredentials(user.getId(), user.getPassword(), user.getVersion()));
+    }
 }
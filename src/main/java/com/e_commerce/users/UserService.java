@@ -1,92 +1,522 @@
 package com.e_commerce.users;
 
-import com.e_commerce.users.events.EventSender;
 import com.e_commerce.users.events.EmailUpdate;
+import com.e_commerce.users.events.EventOutbox;
 import com.e_commerce.users.exceptions.DuplicatedUsernameException;
+import com.e_commerce.users.exceptions.PasswordHashingUnavailableException;
 import com.e_commerce.users.exceptions.UserNotFoundException;
+import com.e_commerce.users.exceptions.UserPreconditionFailedException;
+import com.e_commerce.users.exceptions.UserUpdateConflictException;
 import com.e_commerce.users.exceptions.UsernameNotFoundException;
+import com.e_commerce.users.indexes.UsernameFilter;
+import com.e_commerce.users.indexes.UsernameIndex;
 import com.e_commerce.users.model.*;
+import com.e_commerce.users.passwords.BoundedPasswordEncoder;
+import com.e_commerce.users.reads.BoundedReadExecutor;
+import com.e_commerce.users.reads.ReadCoalescer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
 @Service
 public class UserService {
+    public static final String USER_INFO_CACHE = "userInfo";
+    public static final String USER_EMAIL_CACHE = "userEmail";
+
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    private static final int BATCH_GET_CHUNK_SIZE = 500;
+    private static final int MAX_USERNAME_LENGTH = 64;
+    private static final int ALTERNATIVE_CANDIDATES_FACTOR = 4;
+
     private final UserRepository repository;
     private final PasswordEncoder passwordEncoder;
-    private final EventSender eventSender;
+    private final EventOutbox eventOutbox;
+    private final UsernameFilter usernameFilter;
+    private final UsernameIndex usernameIndex;
+    private final Validator validator;
+    private final BoundedReadExecutor readExecutor;
+    private final ReadCoalescer readCoalescer;
+    private final String missingUserPassword;
+    private final Counter registrationFilterAbsent;
+    private final Counter registrationFilterPresent;
+    private final Counter availabilityFilterAbsent;
+    private final Counter availabilityFilterPresent;
 
     public UserService(UserRepository repository,
                        PasswordEncoder passwordEncoder,
-                       EventSender eventSender) {
+                       EventOutbox eventOutbox,
+                       UsernameFilter usernameFilter,
+                       UsernameIndex usernameIndex,
+                       Validator validator,
+                       BoundedReadExecutor readExecutor,
+                       ReadCoalescer readCoalescer,
+                       MeterRegistry meterRegistry) {
         this.repository = repository;
         this.passwordEncoder = passwordEncoder;
-        this.eventSender = eventSender;
+        this.eventOutbox = eventOutbox;
+        this.usernameFilter = usernameFilter;
+        this.usernameIndex = usernameIndex;
+        this.validator = validator;
+        this.readExecutor = readExecutor;
+        this.readCoalescer = readCoalescer;
+        this.missingUserPassword = passwordEncoder.encode(UUID.randomUUID().toString());
+        this.registrationFilterAbsent = filterLookups(meterRegistry, "registration", "absent");
+        this.registrationFilterPresent = filterLookups(meterRegistry, "registration", "present");
+        this.availabilityFilterAbsent = filterLookups(meterRegistry, "availability", "absent");
+        this.availabilityFilterPresent = filterLookups(meterRegistry, "availability", "present");
+    }
+
+    private static Counter filterLookups(MeterRegistry meterRegistry, String caller, String result) {
+        return Counter.builder("users.username.filter.lookups")
+                .description("Username filter lookups; absent ones skipped the database")
+                .tag("caller", caller)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private boolean mightContain(String username, Counter absent, Counter present) {
+        boolean mightContain = usernameFilter.mightContain(username);
+
+        if (usernameFilter.isWarmed()) {
+            (mightContain ? present : absent).increment();
+        }
+
+        return mightContain;
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USER_INFO_CACHE, key = "#user.username"),
+            @CacheEvict(cacheNames = USER_EMAIL_CACHE, key = "#user.username")
+    })
     public void registerUser(User user) {
-        if (repository.existsUserByUsername(user.getUsername())) {
+        if (mightContain(user.getUsername(), registrationFilterAbsent, registrationFilterPresent) &&
+                repository.existsUserByUsername(user.getUsername())) {
             throw new DuplicatedUsernameException(user.getUsername());
         }
 
         String encodedPassword = passwordEncoder.encode(user.getPassword());
         user.setPassword(encodedPassword);
 
-        repository.save(user);
+        try {
+            repository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicatedUsername(e)) {
+                throw new DuplicatedUsernameException(user.getUsername());
+            }
+
+            throw e;
+        }
+
+        usernameFilter.add(user.getUsername());
+        usernameIndex.add(user.getUsername());
 
         log.info("{} was registered with success", user);
     }
 
-    public UserInfo retrieveUserInfo(String username) {
+    private static boolean isDuplicatedUsername(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE &&
+                        violation.getConstraintName() != null &&
+                        violation.getConstraintName().toLowerCase(Locale.ROOT).endsWith(User.USERNAME_CONSTRAINT);
+            }
+        }
+
+        return false;
+    }
+
+    private List<String> encodePasswords(List<String> rawPasswords) {
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder) {
+            return boundedPasswordEncoder.encodeAll(rawPasswords);
+        }
+
+        return rawPasswords.stream()
+                .map(passwordEncoder::encode)
+                .toList();
+    }
+
+    private List<User> insertUsers(List<User> users, RegistrationResult[] results, Map<String, Integer> candidates) {
+        try {
+            repository.saveAll(users);
+
+            return users;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Bulk insert of {} users hit a constraint violation, inserting them one by one", users.size());
+        }
+
+        List<User> inserted = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            user.setId(null);
+            user.setVersion(null);
+
+            try {
+                repository.saveAndFlush(user);
+                inserted.add(user);
+            } catch (DataIntegrityViolationException e) {
+                int i = candidates.get(user.getUsername());
+
+                if (isDuplicatedUsername(e)) {
+                    results[i] = RegistrationResult.duplicated(user.getUsername());
+                } else {
+                    log.warn("{} could not be inserted", user, e);
+                    results[i] = RegistrationResult.invalid(user.getUsername(), List.of("User could not be stored."));
+                }
+            }
+        }
+
+        return inserted;
+    }
+
+    public List<RegistrationResult> registerUsers(List<User> users) {
+        RegistrationResult[] results = new RegistrationResult[users.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+
+            if (user == null) {
+                results[i] = RegistrationResult.invalid(null, List.of("User must be provided."));
+                continue;
+            }
+
+            List<String> reasons = validator.validate(user)
+                    .stream()
+                    .map(ConstraintViolation::getMessage)
+                    .toList();
+
+            if (!reasons.isEmpty()) {
+                results[i] = RegistrationResult.invalid(user.getUsername(), reasons);
+            } else if (candidates.putIfAbsent(user.getUsername(), i) != null) {
+                results[i] = RegistrationResult.duplicated(user.getUsername());
+            }
+        }
+
+        List<String> probablyExisting = candidates.keySet()
+                .stream()
+                .filter(username -> mightContain(username, registrationFilterAbsent, registrationFilterPresent))
+                .toList();
+
+        Set<String> existing = probablyExisting.isEmpty()
+                ? Set.of()
+                : repository.findExistingUsernames(probablyExisting);
+
+        List<User> registered = new ArrayList<>(candidates.size());
+
+        candidates.forEach((username, i) -> {
+            if (existing.contains(username)) {
+                results[i] = RegistrationResult.duplicated(username);
+            } else {
+                registered.add(users.get(i));
+                results[i] = RegistrationResult.registered(username);
+            }
+        });
+
+        List<String> encodedPasswords;
+        try {
+            encodedPasswords = encodePasswords(registered.stream()
+                    .map(User::getPassword)
+                    .toList());
+        } catch (PasswordHashingUnavailableException e) {
+            throw new PasswordHashingUnavailableException(
+                    "Password hashing is at full capacity and no user was registered, try again later.");
+        }
+
+        for (int i = 0; i < registered.size(); i++) {
+            registered.get(i).setPassword(encodedPasswords.get(i));
+        }
+
+        List<User> inserted = registered.isEmpty() ? registered : insertUsers(registered, results, candidates);
+
+        inserted.forEach(user -> {
+            usernameFilter.add(user.getUsername());
+            usernameIndex.add(user.getUsername());
+        });
+
+        log.info("{} out of {} users were registered with success", inserted.size(), users.size());
+
+        return Arrays.asList(results);
+    }
+
+    private UserInfo findUserInfo(String username) {
         return repository.findOptionalUserInfoByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
     }
 
-    public UserEmail retrieveUserEmail(String username) {
+    private UserEmail findUserEmail(String username) {
         return repository.findOptionalUserEmailByUsername(username)
-                .map(UserEmail::new)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
     }
 
-    public void updateUserPassword(PasswordChange change) {
+    @Cacheable(cacheNames = USER_INFO_CACHE, sync = true)
+    public UserInfo retrieveUserInfo(String username) {
+        return readCoalescer.execute(USER_INFO_CACHE, username, () -> findUserInfo(username));
+    }
+
+    @Cacheable(cacheNames = USER_INFO_CACHE, sync = true)
+    public CompletableFuture<UserInfo> retrieveUserInfoAsync(String username) {
+        return readCoalescer.executeAsync(USER_INFO_CACHE, username,
+                () -> readExecutor.supply(() -> findUserInfo(username)));
+    }
+
+    @Cacheable(cacheNames = USER_EMAIL_CACHE, sync = true)
+    public UserEmail retrieveUserEmail(String username) {
+        return readCoalescer.execute(USER_EMAIL_CACHE, username, () -> findUserEmail(username));
+    }
+
+    @Cacheable(cacheNames = USER_EMAIL_CACHE, sync = true)
+    public CompletableFuture<UserEmail> retrieveUserEmailAsync(String username) {
+        return readCoalescer.executeAsync(USER_EMAIL_CACHE, username,
+                () -> readExecutor.supply(() -> findUserEmail(username)));
+    }
+
+    private <E, T> BatchGetResult<T> batchGet(List<String> usernames,
+                                              Function<Collection<String>, List<E>> query,
+                                              Function<E, String> entryUsername,
+                                              Function<E, T> entryValue) {
+        List<String> distinctUsernames = usernames.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, T> values = new HashMap<>();
+
+        for (int from = 0; from < distinctUsernames.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<String> chunk = distinctUsernames.subList(
+                    from, Math.min(from + BATCH_GET_CHUNK_SIZE, distinctUsernames.size()));
+
+            for (E entry : query.apply(chunk)) {
+                values.put(entryUsername.apply(entry), entryValue.apply(entry));
+            }
+        }
+
+        Map<String, T> found = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+
+        for (String username : distinctUsernames) {
+            T value = values.get(username);
+
+            if (value != null) {
+                found.put(username, value);
+            } else {
+                notFound.add(username);
+            }
+        }
+
+        return new BatchGetResult<>(found, notFound);
+    }
+
+    private static String prefixPattern(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+
+            if (c == '!' || c == '%' || c == '_') {
+                pattern.append('!');
+            }
+
+            pattern.append(c);
+        }
+
+        return pattern.append('%').toString();
+    }
+
+    @Transactional(readOnly = true)
+    public UserPage listUsers(String prefix, String after, int limit) {
+        String cursor = after == null ? "" : after;
+        Pageable pageable = PageRequest.ofSize(limit + 1);
+
+        List<UserSummary> users = prefix == null || prefix.isEmpty()
+                ? repository.findUserSummariesAfter(cursor, pageable)
+                : repository.findUserSummariesLikeAfter(prefixPattern(prefix), cursor, pageable);
+
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+
+        List<UserSummary> page = users.subList(0, limit);
+
+        return new UserPage(page, page.get(limit - 1).username());
+    }
+
+    private static String alternativeUsername(String username, String suffix) {
+        int length = Math.min(username.length(), MAX_USERNAME_LENGTH - suffix.length());
+
+        return username.substring(0, length) + suffix;
+    }
+
+    private static Set<String> alternativeCandidates(String username, int alternatives) {
+        Set<String> candidates = new LinkedHashSet<>();
+        int count = alternatives * ALTERNATIVE_CANDIDATES_FACTOR;
+
+        for (int i = 1; i <= alternatives; i++) {
+            candidates.add(alternativeUsername(username, Integer.toString(i)));
+        }
+
+        while (candidates.size() < count) {
+            int suffix = ThreadLocalRandom.current().nextInt(10, 10_000);
+
+            candidates.add(alternativeUsername(username,
+                    candidates.size() % 2 == 0 ? Integer.toString(suffix) : "_" + suffix));
+        }
+
+        candidates.remove(username);
+
+        return candidates;
+    }
+
+    @Transactional(readOnly = true)
+    public UsernameAvailability checkUsernameAvailability(String username, int alternatives) {
+        boolean authoritative = usernameFilter.isAuthoritative();
+
+        if (authoritative && !mightContain(username, availabilityFilterAbsent, availabilityFilterPresent)) {
+            return new UsernameAvailability(username, true, List.of());
+        }
+
+        Set<String> candidates = alternatives > 0 ? alternativeCandidates(username, alternatives) : Set.of();
+
+        List<String> probablyExisting = new ArrayList<>(candidates.size() + 1);
+        probablyExisting.add(username);
+        candidates.stream()
+                .filter(candidate -> !authoritative ||
+                        mightContain(candidate, availabilityFilterAbsent, availabilityFilterPresent))
+                .forEach(probablyExisting::add);
+
+        Set<String> existing = repository.findExistingUsernames(probablyExisting);
+
+        if (!existing.contains(username)) {
+            return new UsernameAvailability(username, true, List.of());
+        }
+
+        List<String> free = candidates.stream()
+                .filter(candidate -> !existing.contains(candidate))
+                .limit(alternatives)
+                .toList();
+
+        return new UsernameAvailability(username, false, free);
+    }
+
+    public List<String> suggestUsernames(String prefix, int limit) {
+        return usernameIndex.suggest(prefix, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public BatchGetResult<UserInfo> retrieveUsersInfo(List<String> usernames) {
+        return batchGet(usernames, repository::findUserInfoEntriesByUsernames,
+                UserInfoEntry::username, entry -> new UserInfo(entry.description()));
+    }
+
+    @Transactional(readOnly = true)
+    public BatchGetResult<UserEmail> retrieveUsersEmail(List<String> usernames) {
+        return batchGet(usernames, repository::findUserEmailEntriesByUsernames,
+                UserEmailEntry::username, entry -> new UserEmail(entry.email()));
+    }
+
+    private StoredCredentials verifyCredentials(UserCredentials credentials) {
+        Optional<StoredCredentials> found = repository.findOptionalStoredCredentialsByUsername(credentials.username());
+
+        if (found.isEmpty()) {
+            passwordEncoder.matches(credentials.password(), missingUserPassword);
+
+            throw new UserNotFoundException();
+        }
+
+        StoredCredentials stored = found.get();
+
+        if (!passwordEncoder.matches(credentials.password(), stored.password())) {
+            throw new UserNotFoundException();
+        }
+
+        return stored;
+    }
+
+    private void checkVersion(String username, StoredCredentials stored, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(stored.version())) {
+            throw new UserPreconditionFailedException(username);
+        }
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USER_INFO_CACHE, key = "#change.credentials().username()"),
+            @CacheEvict(cacheNames = USER_EMAIL_CACHE, key = "#change.credentials().username()")
+    })
+    public void updateUserPassword(PasswordChange change, Long expectedVersion) {
         UserCredentials credentials = change.credentials();
 
-        String encodedCurrentPassword = passwordEncoder.encode(credentials.password());
+        StoredCredentials stored = verifyCredentials(credentials);
+        checkVersion(credentials.username(), stored, expectedVersion);
+
         String encodedNewPassword = passwordEncoder.encode(change.password());
 
-        if (repository.updateUserPassword(credentials.username(), encodedCurrentPassword, encodedNewPassword) == 0) {
-            throw new UserNotFoundException();
+        if (repository.updateUserPassword(stored.id(), stored.version(), encodedNewPassword) == 0) {
+            throw new UserUpdateConflictException(credentials.username());
         }
 
         log.info("Password of user {} password was updated with success", credentials.username());
     }
 
-    @Transactional(rollbackFor = {AmqpException.class})
-    public void updateUserEmail(EmailChange change) {
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USER_INFO_CACHE, key = "#change.credentials().username()"),
+            @CacheEvict(cacheNames = USER_EMAIL_CACHE, key = "#change.credentials().username()")
+    })
+    public void updateUserEmail(EmailChange change, Long expectedVersion) {
         UserCredentials credentials = change.credentials();
 
-        String encodedPassword = passwordEncoder.encode(credentials.password());
+        StoredCredentials stored = verifyCredentials(credentials);
+        checkVersion(credentials.username(), stored, expectedVersion);
 
-        if (repository.updateUserEmail(credentials.username(), encodedPassword, change.email()) == 0) {
-            throw new UserNotFoundException();
+        String encodedPassword = passwordEncoder.upgradeEncoding(stored.password())
+                ? passwordEncoder.encode(credentials.password())
+                : stored.password();
+
+        if (repository.updateUserEmail(stored.id(), stored.version(), change.email(), encodedPassword) == 0) {
+            throw new UserUpdateConflictException(credentials.username());
         }
 
         EmailUpdate update = new EmailUpdate(credentials.username(), change.email());
 
-        eventSender.sendEmailUpdate(update);
+        eventOutbox.enqueueEmailUpdate(update);
 
         log.info("Email of user {} was updated with success", credentials.username());
     }
 
-    public void updateUserInfo(UserInfoChange change) {
-        if (repository.updateUserInfo(change.username(), change.userInfo()) == 0) {
-            throw new UsernameNotFoundException(change.username());
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USER_INFO_CACHE, key = "#change.username()"),
+            @CacheEvict(cacheNames = USER_EMAIL_CACHE, key = "#change.username()")
+    })
+    public void updateUserInfo(UserInfoChange change, Long expectedVersion) {
+        if (expectedVersion == null) {
+            if (repository.updateUserInfo(change.username(), change.userInfo()) == 0) {
+                throw new UsernameNotFoundException(change.username());
+            }
+        } else if (repository.updateUserInfo(change.username(), expectedVersion, change.userInfo()) == 0) {
+            if (!repository.existsUserByUsername(change.username())) {
+                throw new UsernameNotFoundException(change.username());
+            }
+
+            throw new UserPreconditionFailedException(change.username());
         }
 
         log.info("Info of user {} was updated with success", change.username());
@@ -0,0 +1,26 @@
+package com.e_commerce.users.configuration;
+
+import com.e_commerce.users.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+    @Bean
+    public CacheManager cacheManager(@Value("${users.cache.specification}") String specification) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                UserService.USER_INFO_CACHE, UserService.USER_EMAIL_CACHE);
+
+        cacheManager.setCacheSpecification(specification);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setAsyncCacheMode(true);
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,89 @@
+package com.e_commerce.users.configuration;
+
+import com.e_commerce.users.limits.AdaptiveConcurrencyLimit;
+import com.e_commerce.users.limits.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class ConcurrencyLimitConfiguration {
+    private static final String[] HASHING_PATHS = {"/users/register", "/users/update/password", "/users/update/email"};
+    private static final String[] BULK_PATHS = {"/users/register/bulk"};
+    private static final String[] LISTING_PATHS = {"/users", "/users/suggestions", "/users/info:batchGet",
+            "/users/email:batchGet"};
+    private static final String[] UNLIMITED_PATHS = {"/users/export"};
+
+    @Bean
+    public AdaptiveConcurrencyLimit readConcurrencyLimit(
+            MeterRegistry meterRegistry,
+            @Value("${users.concurrency-limits.reads.initial-limit}") int initialLimit,
+            @Value("${users.concurrency-limits.reads.min-limit}") int minLimit,
+            @Value("${users.concurrency-limits.reads.max-limit}") int maxLimit,
+            @Value("${users.concurrency-limits.reads.latency-threshold}") Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimit("reads", initialLimit, minLimit, maxLimit, latencyThreshold,
+                meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit hashingConcurrencyLimit(
+            MeterRegistry meterRegistry,
+            @Value("${users.concurrency-limits.hashing.initial-limit}") int initialLimit,
+            @Value("${users.concurrency-limits.hashing.min-limit}") int minLimit,
+            @Value("${users.concurrency-limits.hashing.max-limit}") int maxLimit,
+            @Value("${users.concurrency-limits.hashing.latency-threshold}") Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimit("hashing", initialLimit, minLimit, maxLimit, latencyThreshold,
+                meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit bulkConcurrencyLimit(
+            MeterRegistry meterRegistry,
+            @Value("${users.concurrency-limits.bulk.initial-limit}") int initialLimit,
+            @Value("${users.concurrency-limits.bulk.min-limit}") int minLimit,
+            @Value("${users.concurrency-limits.bulk.max-limit}") int maxLimit,
+            @Value("${users.concurrency-limits.bulk.latency-threshold}") Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimit("bulk", initialLimit, minLimit, maxLimit, latencyThreshold,
+                meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit listingConcurrencyLimit(
+            MeterRegistry meterRegistry,
+            @Value("${users.concurrency-limits.listings.initial-limit}") int initialLimit,
+            @Value("${users.concurrency-limits.listings.min-limit}") int minLimit,
+            @Value("${users.concurrency-limits.listings.max-limit}") int maxLimit,
+            @Value("${users.concurrency-limits.listings.latency-threshold}") Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimit("listings", initialLimit, minLimit, maxLimit, latencyThreshold,
+                meterRegistry);
+    }
+
+    @Bean
+    public WebMvcConfigurer concurrencyLimitConfigurer(AdaptiveConcurrencyLimit readConcurrencyLimit,
+                                                       AdaptiveConcurrencyLimit hashingConcurrencyLimit,
+                                                       AdaptiveConcurrencyLimit bulkConcurrencyLimit,
+                                                       AdaptiveConcurrencyLimit listingConcurrencyLimit) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ConcurrencyLimitInterceptor(hashingConcurrencyLimit))
+                        .addPathPatterns(HASHING_PATHS);
+                registry.addInterceptor(new ConcurrencyLimitInterceptor(bulkConcurrencyLimit))
+                        .addPathPatterns(BULK_PATHS);
+                registry.addInterceptor(new ConcurrencyLimitInterceptor(listingConcurrencyLimit))
+                        .addPathPatterns(LISTING_PATHS);
+                registry.addInterceptor(new ConcurrencyLimitInterceptor(readConcurrencyLimit))
+                        .addPathPatterns("/users/**")
+                        .excludePathPatterns(HASHING_PATHS)
+                        .excludePathPatterns(BULK_PATHS)
+                        .excludePathPatterns(LISTING_PATHS)
+                        .excludePathPatterns(UNLIMITED_PATHS);
+            }
+        };
+    }
+}
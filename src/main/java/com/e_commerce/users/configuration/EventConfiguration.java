@@ -1,14 +1,18 @@
 package com.e_commerce.users.configuration;
 
+import com.e_commerce.users.events.EmailUpdate;
+import com.e_commerce.users.events.EventMessageConverter;
 import com.e_commerce.users.events.EventSender;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
 public class EventConfiguration {
     @Bean
     public TopicExchange topicExchange() {
@@ -25,7 +29,7 @@ public class EventConfiguration {
     }
 
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public EventMessageConverter messageConverter(@Value("${users.events.content-type}") String contentType) {
+        return new EventMessageConverter(contentType, EmailUpdate.class);
     }
 }
@@ -1,14 +1,73 @@
 package com.e_commerce.users.configuration;
 
+import com.e_commerce.users.passwords.BcryptCalibration;
+import com.e_commerce.users.passwords.BcryptCostCalibrator;
+import com.e_commerce.users.passwords.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
 @Configuration
 public class PasswordConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(PasswordConfiguration.class);
+
+    private static final String BCRYPT_ID = "bcrypt";
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public BcryptCalibration bcryptCalibration(MeterRegistry meterRegistry,
+                                               @Value("${users.password-hashing.cost}") int cost,
+                                               @Value("${users.password-hashing.target-latency}") Duration targetLatency,
+                                               @Value("${users.password-hashing.min-cost}") int minCost,
+                                               @Value("${users.password-hashing.max-cost}") int maxCost,
+                                               @Value("${users.password-hashing.calibration-samples}") int samples) {
+        BcryptCalibration calibration = new BcryptCalibration(cost, Collections.emptySortedMap());
+
+        if (cost <= 0) {
+            calibration = new BcryptCostCalibrator(BCryptPasswordEncoder::new,
+                    targetLatency, minCost, maxCost, samples).calibrate();
+        }
+
+        Gauge.builder("users.password.hashing.cost", calibration, BcryptCalibration::cost)
+                .description("Bcrypt cost factor used to encode passwords")
+                .register(meterRegistry);
+        calibration.medians().forEach((measuredCost, median) ->
+                Gauge.builder("users.password.hashing.calibration", median, d -> d.toNanos() / 1e9)
+                        .description("Median encoding time measured while calibrating the bcrypt cost")
+                        .tag("cost", String.valueOf(measuredCost))
+                        .baseUnit("seconds")
+                        .register(meterRegistry));
+
+        log.info("Passwords are hashed with bcrypt cost {} (calibration medians {})",
+                calibration.cost(), calibration.medians());
+
+        return calibration;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           BcryptCalibration calibration,
+                                           @Value("${users.password-hashing.threads}") int threads,
+                                           @Value("${users.password-hashing.queue-capacity}") int queueCapacity) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new BCryptPasswordEncoder(calibration.cost())));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+        return new BoundedPasswordEncoder(
+                encoder,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity,
+                meterRegistry);
     }
 }
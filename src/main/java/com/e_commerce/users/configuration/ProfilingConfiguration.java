@@ -0,0 +1,36 @@
+package com.e_commerce.users.configuration;
+
+import com.e_commerce.users.profiling.RepositoryCallInterceptor;
+import com.e_commerce.users.profiling.UserOperationAdvisor;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class ProfilingConfiguration {
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor userOperationAdvisor() {
+        return new UserOperationAdvisor();
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryCallRecordingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryCallInterceptor(information.getRepositoryInterface().getSimpleName()))));
+                }
+
+                return bean;
+            }
+        };
+    }
+}
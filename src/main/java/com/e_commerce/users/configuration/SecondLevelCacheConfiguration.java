@@ -0,0 +1,34 @@
+package com.e_commerce.users.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SecondLevelCacheConfiguration {
+    private static double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        return registry -> {
+            Gauge.builder("users.hibernate.cache.hit.ratio", statistics,
+                            s -> hitRatio(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()))
+                    .description("Share of second-level cache lookups served without the database")
+                    .tag("cache", "entity")
+                    .register(registry);
+            Gauge.builder("users.hibernate.cache.hit.ratio", statistics,
+                            s -> hitRatio(s.getNaturalIdCacheHitCount(), s.getNaturalIdCacheMissCount()))
+                    .description("Share of second-level cache lookups served without the database")
+                    .tag("cache", "natural-id")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.e_commerce.users.configuration;
+
+import com.e_commerce.users.datasources.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new ConcurrencyLimitedDataSource(dataSource, dataSource.getMaximumPoolSize(),
+                            Duration.ofMillis(dataSource.getConnectionTimeout()));
+                }
+
+                return bean;
+            }
+        };
+    }
+}
@@ -4,25 +4,127 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import org.passay.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class PasswordConstraintValidator implements ConstraintValidator<PasswordConstraint, String> {
-    private PasswordValidator validator;
+    private static final int MIN_LENGTH = 8;
+    private static final int MAX_LENGTH = 16;
+    private static final int MAX_OCCURRENCES = 3;
+    private static final int MAX_SEQUENCE_LENGTH = 3;
 
-    @Override
-    public void initialize(PasswordConstraint constraintAnnotation) {
-        validator = new PasswordValidator(
-                new LengthRule(8, 16),
-                new CharacterRule(EnglishCharacterData.UpperCase, 1),
-                new CharacterRule(EnglishCharacterData.LowerCase, 1),
-                new CharacterRule(EnglishCharacterData.Digit, 1),
-                new CharacterRule(EnglishCharacterData.Special, 1),
-                new CharacterOccurrencesRule(3),
-                new IllegalSequenceRule(EnglishSequenceData.Alphabetical, 3, false),
-                new IllegalSequenceRule(EnglishSequenceData.Numerical, 3, false),
-                new IllegalSequenceRule(EnglishSequenceData.USQwerty, 3, false),
-                new WhitespaceRule()
-        );
+    private static final EnglishSequenceData[] ILLEGAL_SEQUENCES = {
+            EnglishSequenceData.Alphabetical,
+            EnglishSequenceData.Numerical,
+            EnglishSequenceData.USQwerty
+    };
+
+    private static final PasswordValidator VALIDATOR = new PasswordValidator(
+            new LengthRule(MIN_LENGTH, MAX_LENGTH),
+            new CharacterRule(EnglishCharacterData.UpperCase, 1),
+            new CharacterRule(EnglishCharacterData.LowerCase, 1),
+            new CharacterRule(EnglishCharacterData.Digit, 1),
+            new CharacterRule(EnglishCharacterData.Special, 1),
+            new CharacterOccurrencesRule(MAX_OCCURRENCES),
+            new IllegalSequenceRule(ILLEGAL_SEQUENCES[0], MAX_SEQUENCE_LENGTH, false),
+            new IllegalSequenceRule(ILLEGAL_SEQUENCES[1], MAX_SEQUENCE_LENGTH, false),
+            new IllegalSequenceRule(ILLEGAL_SEQUENCES[2], MAX_SEQUENCE_LENGTH, false),
+            new WhitespaceRule()
+    );
+
+    private static final int ASCII = 128;
+    private static final int ALL_CHARACTER_CLASSES = 0b1111;
+    private static final byte[] CHARACTER_CLASSES = characterClasses(
+            EnglishCharacterData.UpperCase,
+            EnglishCharacterData.LowerCase,
+            EnglishCharacterData.Digit,
+            EnglishCharacterData.Special);
+    private static final long[][] SEQUENCE_POSITIONS = sequencePositions();
+
+    private static byte[] characterClasses(CharacterData... characterData) {
+        byte[] classes = new byte[ASCII];
+
+        for (int i = 0; i < characterData.length; i++) {
+            for (char c : characterData[i].getCharacters().toCharArray()) {
+                if (c > ' ' && c < ASCII) {
+                    classes[c] |= (byte) (1 << i);
+                }
+            }
+        }
+
+        return classes;
+    }
+
+    private static long[][] sequencePositions() {
+        List<long[]> positions = new ArrayList<>();
+
+        for (EnglishSequenceData sequenceData : ILLEGAL_SEQUENCES) {
+            for (CharacterSequence sequence : sequenceData.getSequences()) {
+                if (sequence.length() > Long.SIZE) {
+                    throw new IllegalStateException("Character sequence is too long to be precompiled.");
+                }
+
+                long[] sequencePositions = new long[ASCII];
+
+                for (int position = 0; position < sequence.length(); position++) {
+                    for (char c = 0; c < ASCII; c++) {
+                        if (sequence.matches(position, c)) {
+                            sequencePositions[c] |= 1L << position;
+                        }
+                    }
+                }
+
+                positions.add(sequencePositions);
+            }
+        }
+
+        return positions.toArray(long[][]::new);
+    }
+
+    private static boolean containsIllegalSequence(char first, char second, char third) {
+        for (long[] positions : SEQUENCE_POSITIONS) {
+            long a = positions[first];
+            long b = positions[second];
+            long c = positions[third];
+
+            if ((a & (b >>> 1) & (c >>> 2)) != 0 || (a & (b << 1) & (c << 2)) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isDefinitelyValid(String password) {
+        int length = password.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return false;
+        }
+
+        int characterClasses = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c >= ASCII || CHARACTER_CLASSES[c] == 0) {
+                return false;
+            }
+
+            characterClasses |= CHARACTER_CLASSES[c];
+
+            int occurrences = 1;
+            for (int j = 0; j < i; j++) {
+                if (password.charAt(j) == c && ++occurrences > MAX_OCCURRENCES) {
+                    return false;
+                }
+            }
+
+            if (i >= MAX_SEQUENCE_LENGTH - 1 &&
+                    containsIllegalSequence(password.charAt(i - 2), password.charAt(i - 1), c)) {
+                return false;
+            }
+        }
+
+        return characterClasses == ALL_CHARACTER_CLASSES;
     }
 
     @Override
@@ -32,13 +134,16 @@ public class PasswordConstraintValidator implements ConstraintValidator<Password
         if (password == null || password.isEmpty()) {
             violations = List.of("Password must be provided.");
         }
+        else if (isDefinitelyValid(password)) {
+            return true;
+        }
         else {
-            RuleResult result = validator.validate(new PasswordData(password));
+            RuleResult result = VALIDATOR.validate(new PasswordData(password));
             if (result.isValid()) {
                 return true;
             }
 
-            violations = validator.getMessages(result);
+            violations = VALIDATOR.getMessages(result);
         }
 
         context.disableDefaultConstraintViolation();
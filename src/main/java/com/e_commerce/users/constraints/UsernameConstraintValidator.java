@@ -4,6 +4,45 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 public class UsernameConstraintValidator implements ConstraintValidator<UsernameConstraint, String> {
+    private static final boolean[] ALLOWED_ASCII = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            ALLOWED_ASCII[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            ALLOWED_ASCII[c] = true;
+        }
+        ALLOWED_ASCII['.'] = true;
+        ALLOWED_ASCII['_'] = true;
+    }
+
+    private static boolean isAllowed(char c) {
+        if (c < ALLOWED_ASCII.length) {
+            return ALLOWED_ASCII[c];
+        }
+
+        return (Character.isLetter(c) && Character.isLowerCase(c)) || Character.isDigit(c);
+    }
+
+    private static String findViolation(String username) {
+        boolean repeatedDots = false;
+        char previous = 0;
+
+        for (int i = 0; i < username.length(); i++) {
+            char c = username.charAt(i);
+
+            if (!isAllowed(c)) {
+                return "Username can only contain lower case letters, numbers, dots and underscores.";
+            }
+
+            repeatedDots |= c == '.' && previous == '.';
+            previous = c;
+        }
+
+        return repeatedDots ? "Username cannot contain repeated dots." : null;
+    }
+
     @Override
     public boolean isValid(String username, ConstraintValidatorContext context) {
         String violation;
@@ -14,16 +53,11 @@ public class UsernameConstraintValidator implements ConstraintValidator<Username
         else if (username.length() > 64) {
             violation = "Username can only contain up to 64 characters.";
         }
-        else if (!username
-                .chars()
-                .allMatch(c -> (Character.isLetter(c) && Character.isLowerCase(c)) ||
-                        Character.isDigit(c) ||
-                        c == '.' || c == '_')) {
-            violation = "Username can only contain lower case letters, numbers, dots and underscores.";
-        } else if (username.contains("..")) {
-            violation = "Username cannot contain repeated dots.";
-        } else {
-            return true;
+        else {
+            violation = findViolation(username);
+            if (violation == null) {
+                return true;
+            }
         }
 
         context.disableDefaultConstraintViolation();
@@ -0,0 +1,175 @@
+package com.e_commerce.users.events;
+
+import com.e_commerce.users.profiling.EventSendEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class BatchingEventPublisher {
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Semaphore inFlightPermits;
+    private final Duration inFlightTimeout;
+    private final Map<String, List<PendingEvent>> batches = new HashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final DistributionSummary batchSizes;
+    private final Timer confirmLatency;
+    private final Map<String, Timer> sendTimers = new ConcurrentHashMap<>();
+
+    public BatchingEventPublisher(RabbitTemplate rabbitTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${users.events.batching.batch-size}") int batchSize,
+                                  @Value("${users.events.batching.max-in-flight}") int maxInFlight,
+                                  @Value("${users.events.batching.in-flight-timeout}") Duration inFlightTimeout) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in-flight events must be positive.");
+        }
+
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.inFlightTimeout = inFlightTimeout;
+        this.batchSizes = DistributionSummary.builder("users.events.batch.size")
+                .description("Events sent per flushed batch")
+                .register(meterRegistry);
+        this.confirmLatency = Timer.builder("users.events.confirm.latency")
+                .description("Time between sending an event and its broker confirm")
+                .register(meterRegistry);
+        Gauge.builder("users.events.in.flight", inFlight, AtomicInteger::get)
+                .description("Events sent and waiting for a broker confirm")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Void> publish(String routingKey, Message message) {
+        PendingEvent event = new PendingEvent(message, new CompletableFuture<>());
+        List<PendingEvent> full = null;
+
+        synchronized (batches) {
+            List<PendingEvent> batch = batches.computeIfAbsent(routingKey, k -> new ArrayList<>(batchSize));
+            batch.add(event);
+
+            if (batch.size() >= batchSize) {
+                full = batches.remove(routingKey);
+            }
+        }
+
+        if (full != null) {
+            send(routingKey, full);
+        }
+
+        return event.confirmation();
+    }
+
+    @Scheduled(fixedDelayString = "${users.events.batching.flush-interval}")
+    public void flush() {
+        Map<String, List<PendingEvent>> pending;
+
+        synchronized (batches) {
+            if (batches.isEmpty()) {
+                return;
+            }
+
+            pending = new HashMap<>(batches);
+            batches.clear();
+        }
+
+        pending.forEach(this::send);
+    }
+
+    private Timer sendTimer(String routingKey) {
+        return sendTimers.computeIfAbsent(routingKey, key -> Timer.builder("users.events.send")
+                .description("Time spent sending a batch of events to the broker")
+                .tag("routing.key", key)
+                .register(meterRegistry));
+    }
+
+    private boolean acquireInFlightPermit() {
+        try {
+            return inFlightPermits.tryAcquire(inFlightTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+    }
+
+    private void send(String routingKey, List<PendingEvent> batch) {
+        batchSizes.record(batch.size());
+        EventSendEvent sendEvent = new EventSendEvent(routingKey, batch.size());
+        long startedAt = System.nanoTime();
+
+        sendEvent.begin();
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (PendingEvent event : batch) {
+                    if (!acquireInFlightPermit()) {
+                        event.confirmation().completeExceptionally(
+                                new AmqpException("Too many events are waiting for a broker confirm."));
+
+                        continue;
+                    }
+
+                    CorrelationData correlation = new CorrelationData();
+                    long sentAt = System.nanoTime();
+
+                    inFlight.incrementAndGet();
+                    correlation.getFuture().whenComplete((confirm, e) -> {
+                        inFlight.decrementAndGet();
+                        inFlightPermits.release();
+                        confirmLatency.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+
+                        if (e != null) {
+                            event.confirmation().completeExceptionally(e);
+                        } else if (!confirm.isAck()) {
+                            event.confirmation().completeExceptionally(
+                                    new AmqpException("Event was rejected by the broker: " + confirm.getReason()));
+                        } else {
+                            event.confirmation().complete(null);
+                        }
+                    });
+
+                    try {
+                        operations.send(EventSender.RABBIT_TOPIC_EXCHANGE, routingKey, event.message(), correlation);
+                    } catch (AmqpException e) {
+                        correlation.getFuture().completeExceptionally(e);
+                    }
+                }
+
+                return null;
+            });
+        } catch (AmqpException e) {
+            batch.forEach(event -> event.confirmation().completeExceptionally(e));
+        } finally {
+            sendTimer(routingKey).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            sendEvent.commit();
+        }
+    }
+
+    private record PendingEvent(Message message, CompletableFuture<Void> confirmation) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.e_commerce.users.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class EventMessageConverter extends AbstractMessageConverter {
+    public static final String JSON_CONTENT_TYPE = MessageProperties.CONTENT_TYPE_JSON;
+    public static final String CBOR_CONTENT_TYPE = "application/cbor";
+
+    private final String contentType;
+    private final Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+    private final Map<String, Map<String, ObjectReader>> readers = new HashMap<>();
+
+    public EventMessageConverter(String contentType, Class<?>... eventTypes) {
+        Map<String, ObjectMapper> mappers = Map.of(
+                JSON_CONTENT_TYPE, JsonMapper.builder()
+                        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                        .build(),
+                CBOR_CONTENT_TYPE, CBORMapper.builder()
+                        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                        .build());
+
+        ObjectMapper mapper = mappers.get(contentType);
+        if (mapper == null) {
+            throw new IllegalArgumentException("Unsupported event content type " + contentType + ".");
+        }
+
+        this.contentType = contentType;
+
+        for (Class<?> eventType : eventTypes) {
+            writers.put(eventType, mapper.writerFor(eventType));
+
+            mappers.forEach((type, m) -> readers
+                    .computeIfAbsent(type, t -> new HashMap<>())
+                    .put(eventType.getName(), m.readerFor(eventType)));
+        }
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    protected Message createMessage(Object event, MessageProperties properties) {
+        ObjectWriter writer = writers.get(event.getClass());
+        if (writer == null) {
+            throw new MessageConversionException("Unknown event type " + event.getClass().getName() + ".");
+        }
+
+        byte[] body;
+        try {
+            body = writer.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Failed to serialize " + event + ".", e);
+        }
+
+        properties.setContentType(contentType);
+        properties.setContentLength(body.length);
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getClass().getName());
+
+        return new Message(body, properties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String messageContentType = properties.getContentType();
+        if (messageContentType != null && messageContentType.indexOf(';') >= 0) {
+            messageContentType = messageContentType.substring(0, messageContentType.indexOf(';')).trim();
+        }
+
+        Map<String, ObjectReader> contentTypeReaders = readers.get(messageContentType);
+        if (contentTypeReaders == null) {
+            throw new MessageConversionException("Unsupported event content type " + messageContentType + ".");
+        }
+
+        String typeId = properties.getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        ObjectReader reader = typeId == null ? null : contentTypeReaders.get(typeId);
+        if (reader == null) {
+            throw new MessageConversionException("Unknown event type " + typeId + ".");
+        }
+
+        try {
+            return reader.readValue(message.getBody());
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to deserialize event " + typeId + ".", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.e_commerce.users.events;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class EventOutbox {
+    private final OutboxEventRepository repository;
+    private final EventMessageConverter messageConverter;
+
+    public EventOutbox(OutboxEventRepository repository,
+                       EventMessageConverter messageConverter) {
+        this.repository = repository;
+        this.messageConverter = messageConverter;
+    }
+
+    private void enqueue(String routingKey, Object event) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+        MessageProperties properties = message.getMessageProperties();
+
+        repository.save(new OutboxEvent(
+                routingKey,
+                properties.getContentType(),
+                properties.getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME),
+                message.getBody()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueEmailUpdate(EmailUpdate update) {
+        enqueue(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, update);
+    }
+}
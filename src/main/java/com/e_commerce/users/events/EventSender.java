@@ -1,28 +1,77 @@
 package com.e_commerce.users.events;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @Component
 public class EventSender {
     public static final String RABBIT_TOPIC_EXCHANGE = "user";
     public static final String RABBIT_UPDATE_EMAIL_ROUTING_KEY = "update.email";
 
-    private final RabbitTemplate rabbitTemplate;
+    private static final Logger log = LoggerFactory.getLogger(EventSender.class);
+
+    private final BatchingEventPublisher batchingPublisher;
 
     public EventSender(RabbitTemplate rabbitTemplate,
-                       Jackson2JsonMessageConverter messageConverter) {
+                       EventMessageConverter messageConverter,
+                       BatchingEventPublisher batchingPublisher) {
         rabbitTemplate.setMessageConverter(messageConverter);
 
-        this.rabbitTemplate = rabbitTemplate;
+        this.batchingPublisher = batchingPublisher;
     }
 
-    private void sendEvent(String routingKey, Object o) {
-        rabbitTemplate.convertAndSend(RABBIT_TOPIC_EXCHANGE, routingKey, o);
+    private CompletableFuture<Void> sendOutboxEvent(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(event.getContentType());
+        properties.setMessageId(String.valueOf(event.getId()));
+        if (event.getTypeId() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getTypeId());
+        }
+
+        return batchingPublisher.publish(event.getRoutingKey(), new Message(event.getPayload(), properties));
     }
 
-    public void sendEmailUpdate(EmailUpdate update) {
-        sendEvent(RABBIT_UPDATE_EMAIL_ROUTING_KEY, update);
+    public List<OutboxEvent> sendOutboxEvents(List<OutboxEvent> events, Duration confirmTimeout) {
+        List<CompletableFuture<Void>> confirmations = new ArrayList<>(events.size());
+
+        for (OutboxEvent event : events) {
+            confirmations.add(sendOutboxEvent(event));
+        }
+
+        batchingPublisher.flush();
+
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        List<OutboxEvent> confirmed = new ArrayList<>(events.size());
+
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                confirmations.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                confirmed.add(events.get(i));
+            } catch (TimeoutException e) {
+                log.warn("{} wasn't confirmed within {}", events.get(i), confirmTimeout);
+            } catch (ExecutionException e) {
+                log.warn("{} failed to be confirmed", events.get(i), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                break;
+            }
+        }
+
+        return confirmed;
     }
 }
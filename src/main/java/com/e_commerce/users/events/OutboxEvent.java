@@ -0,0 +1,115 @@
+package com.e_commerce.users.events;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+@Entity
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    private String typeId;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public OutboxEvent() {
+
+    }
+
+    public OutboxEvent(String routingKey, String contentType, String typeId, byte[] payload) {
+        this.routingKey = routingKey;
+        this.contentType = contentType;
+        this.typeId = typeId;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getTypeId() {
+        return typeId;
+    }
+
+    public void setTypeId(String typeId) {
+        this.typeId = typeId;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof OutboxEvent event)) return false;
+        return Objects.equals(id, event.id) &&
+                Objects.equals(routingKey, event.routingKey) &&
+                Objects.equals(contentType, event.contentType) &&
+                Objects.equals(typeId, event.typeId) &&
+                Arrays.equals(payload, event.payload) &&
+                Objects.equals(createdAt, event.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, routingKey, contentType, typeId, Arrays.hashCode(payload), createdAt);
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", routingKey='" + routingKey + '\'' +
+                ", typeId='" + typeId + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.e_commerce.users.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final EventSender eventSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       EventSender eventSender,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${users.outbox.batch-size}") int batchSize,
+                       @Value("${users.outbox.confirm-timeout}") Duration confirmTimeout) {
+        this.repository = repository;
+        this.eventSender = eventSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = repository.findPendingEvents(PageRequest.ofSize(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> confirmed = eventSender.sendOutboxEvents(events, confirmTimeout);
+
+        repository.deleteAllInBatch(confirmed);
+
+        log.debug("{} out of {} outbox events were published", confirmed.size(), events.size());
+
+        return confirmed.size() == events.size() ? events.size() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${users.outbox.relay-interval}")
+    public void relay() {
+        Integer relayed;
+
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+}
@@ -0,0 +1,7 @@
+package com.e_commerce.users.exceptions;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    public ConcurrencyLimitExceededException(String endpointClass) {
+        super("Too many concurrent " + endpointClass + " requests, try again later.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.e_commerce.users.exceptions;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException() {
+        this("Password hashing is at full capacity, try again later.");
+    }
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
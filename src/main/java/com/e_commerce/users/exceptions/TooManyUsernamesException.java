@@ -0,0 +1,7 @@
+package com.e_commerce.users.exceptions;
+
+public class TooManyUsernamesException extends RuntimeException {
+    public TooManyUsernamesException(int maxUsernames) {
+        super("Up to " + maxUsernames + " usernames can be retrieved at once.");
+    }
+}
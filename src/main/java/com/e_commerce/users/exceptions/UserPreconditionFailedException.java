@@ -0,0 +1,7 @@
+package com.e_commerce.users.exceptions;
+
+public class UserPreconditionFailedException extends RuntimeException {
+    public UserPreconditionFailedException(String username) {
+        super("User " + username + " was modified since it was retrieved.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.e_commerce.users.exceptions;
+
+public class UserReadsUnavailableException extends RuntimeException {
+    public UserReadsUnavailableException() {
+        super("User reads are at full capacity, try again later.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.e_commerce.users.exceptions;
+
+public class UserUpdateConflictException extends RuntimeException {
+    public UserUpdateConflictException(String username) {
+        super("User " + username + " was concurrently updated, try again.");
+    }
+}
@@ -0,0 +1,99 @@
+package com.e_commerce.users.exports;
+
+import com.e_commerce.users.UserRepository;
+import com.e_commerce.users.model.UserExportEntry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+public class UserExporter {
+    private static final Logger log = LoggerFactory.getLogger(UserExporter.class);
+
+    private final UserRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+    private final int pageSize;
+
+    public UserExporter(UserRepository repository,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        @Value("${users.export.page-size}") int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Export page size must be positive.");
+        }
+
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writer = objectMapper.writerFor(UserExportEntry.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.pageSize = pageSize;
+    }
+
+    private ExportedPage exportPage(JsonGenerator generator, long afterId) {
+        long lastId = afterId;
+        int exported = 0;
+
+        try (Stream<UserExportEntry> entries = repository.streamUserExportEntriesAfter(
+                afterId, PageRequest.ofSize(pageSize))) {
+            Iterator<UserExportEntry> iterator = entries.iterator();
+
+            while (iterator.hasNext()) {
+                UserExportEntry entry = iterator.next();
+
+                writer.writeValue(generator, entry);
+                generator.writeRaw('\n');
+
+                lastId = entry.id();
+                exported++;
+            }
+
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new ExportedPage(lastId, exported);
+    }
+
+    public long export(OutputStream out) throws IOException {
+        long exported = 0;
+
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            ExportedPage page = new ExportedPage(0, pageSize);
+            while (page.size() == pageSize) {
+                long afterId = page.lastId();
+
+                page = transactionTemplate.execute(status -> exportPage(generator, afterId));
+                exported += page.size();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("{} users were exported", exported);
+
+        return exported;
+    }
+
+    private record ExportedPage(long lastId, int size) {
+    }
+}
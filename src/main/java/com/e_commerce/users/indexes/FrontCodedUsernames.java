@@ -0,0 +1,251 @@
+package com.e_commerce.users.indexes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+final class FrontCodedUsernames {
+    static final FrontCodedUsernames EMPTY = new Writer().finish();
+
+    private static final int BLOCK_SIZE = 16;
+
+    private final byte[] data;
+    private final int[] blocks;
+    private final int size;
+
+    private FrontCodedUsernames(byte[] data, int[] blocks, int size) {
+        this.data = data;
+        this.blocks = blocks;
+        this.size = size;
+    }
+
+    static FrontCodedUsernames of(String[] sortedUsernames, int count) {
+        Writer writer = new Writer();
+
+        for (int i = 0; i < count; i++) {
+            writer.append(sortedUsernames[i]);
+        }
+
+        return writer.finish();
+    }
+
+    static FrontCodedUsernames merge(List<FrontCodedUsernames> runs) {
+        if (runs.size() == 1) {
+            return runs.get(0);
+        }
+
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, runs.size()), Cursor::compareTo);
+        for (FrontCodedUsernames run : runs) {
+            Cursor cursor = run.cursor(0);
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+
+        Writer writer = new Writer();
+
+        while (!cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            writer.append(cursor.entry, cursor.length);
+
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+
+        return writer.finish();
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return data.length + (long) blocks.length * Integer.BYTES;
+    }
+
+    private int compareHead(int block, byte[] key) {
+        int position = blocks[block];
+        int length = data[position++] & 0x7F;
+
+        if ((data[position - 1] & 0x80) != 0) {
+            length |= (data[position++] & 0x7F) << 7;
+        }
+
+        return Arrays.compareUnsigned(data, position, position + length, key, 0, key.length);
+    }
+
+    private Cursor cursor(int block) {
+        return new Cursor(blocks.length == 0 ? 0 : blocks[block], block * BLOCK_SIZE);
+    }
+
+    boolean contains(String username) {
+        List<String> matches = startingWith(username, 1);
+
+        return !matches.isEmpty() && matches.get(0).equals(username);
+    }
+
+    List<String> startingWith(String prefix, int limit) {
+        if (size == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+
+        int low = 0;
+        int high = blocks.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+
+            if (compareHead(middle, key) < 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        Cursor cursor = cursor(low);
+
+        while (matches.size() < limit && cursor.next()) {
+            int comparison = Arrays.compareUnsigned(cursor.entry, 0, Math.min(cursor.length, key.length),
+                    key, 0, key.length);
+
+            if (comparison < 0 || (comparison == 0 && cursor.length < key.length)) {
+                continue;
+            }
+            if (comparison > 0) {
+                break;
+            }
+
+            matches.add(new String(cursor.entry, 0, cursor.length, StandardCharsets.UTF_8));
+        }
+
+        return matches;
+    }
+
+    private final class Cursor implements Comparable<Cursor> {
+        private byte[] entry = new byte[64];
+        private int length;
+        private int position;
+        private int index;
+
+        private Cursor(int position, int index) {
+            this.position = position;
+            this.index = index;
+        }
+
+        private int readLength() {
+            int value = data[position++];
+            if ((value & 0x80) == 0) {
+                return value;
+            }
+
+            return (value & 0x7F) | (data[position++] & 0x7F) << 7;
+        }
+
+        private boolean next() {
+            if (index == size) {
+                return false;
+            }
+
+            int shared = index % BLOCK_SIZE == 0 ? 0 : readLength();
+            int suffix = readLength();
+
+            if (entry.length < shared + suffix) {
+                entry = Arrays.copyOf(entry, Math.max(entry.length * 2, shared + suffix));
+            }
+
+            System.arraycopy(data, position, entry, shared, suffix);
+            position += suffix;
+            length = shared + suffix;
+            index++;
+
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Arrays.compareUnsigned(entry, 0, length, other.entry, 0, other.length);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] data = new byte[1024];
+        private int[] blocks = new int[16];
+        private byte[] previous = new byte[64];
+        private int length;
+        private int blockCount;
+        private int previousLength = -1;
+        private int size;
+
+        private void ensureCapacity(int extra) {
+            if (data.length < length + extra) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+            }
+        }
+
+        private void writeLength(int value) {
+            if (value < 0x80) {
+                data[length++] = (byte) value;
+            } else {
+                data[length++] = (byte) (0x80 | (value & 0x7F));
+                data[length++] = (byte) (value >>> 7);
+            }
+        }
+
+        private void append(String username) {
+            byte[] bytes = username.getBytes(StandardCharsets.UTF_8);
+
+            append(bytes, bytes.length);
+        }
+
+        private void append(byte[] entry, int entryLength) {
+            if (entryLength >= 1 << 14) {
+                throw new IllegalArgumentException("Username is too long to be indexed.");
+            }
+            if (previousLength >= 0 && Arrays.compareUnsigned(
+                    previous, 0, previousLength, entry, 0, entryLength) >= 0) {
+                if (Arrays.equals(previous, 0, previousLength, entry, 0, entryLength)) {
+                    return;
+                }
+
+                throw new IllegalArgumentException("Usernames must be appended in order.");
+            }
+
+            int shared = 0;
+
+            ensureCapacity(entryLength + 4);
+
+            if (size % BLOCK_SIZE == 0) {
+                if (blockCount == blocks.length) {
+                    blocks = Arrays.copyOf(blocks, blocks.length * 2);
+                }
+
+                blocks[blockCount++] = length;
+            } else {
+                int limit = Math.min(previousLength, entryLength);
+                while (shared < limit && previous[shared] == entry[shared]) {
+                    shared++;
+                }
+
+                writeLength(shared);
+            }
+
+            writeLength(entryLength - shared);
+            System.arraycopy(entry, shared, data, length, entryLength - shared);
+            length += entryLength - shared;
+
+            if (previous.length < entryLength) {
+                previous = Arrays.copyOf(previous, Math.max(previous.length * 2, entryLength));
+            }
+
+            System.arraycopy(entry, 0, previous, 0, entryLength);
+            previousLength = entryLength;
+            size++;
+        }
+
+        private FrontCodedUsernames finish() {
+            return new FrontCodedUsernames(Arrays.copyOf(data, length), Arrays.copyOf(blocks, blockCount), size);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.e_commerce.users.indexes;
+
+import com.e_commerce.users.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+@Component
+public class UsernameFilter {
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private final UserRepository repository;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final boolean authoritative;
+    private volatile boolean warmed;
+
+    public UsernameFilter(UserRepository repository,
+                          @Value("${users.username-filter.expected-usernames}") long expectedUsernames,
+                          @Value("${users.username-filter.false-positive-probability}") double falsePositiveProbability,
+                          @Value("${users.username-filter.authoritative}") boolean authoritative) {
+        if (expectedUsernames <= 0) {
+            throw new IllegalArgumentException("Expected usernames must be positive.");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1.");
+        }
+
+        long words = Math.max(1, (long) Math.ceil(
+                -expectedUsernames * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)) / 64));
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Username filter would be too big.");
+        }
+
+        this.repository = repository;
+        this.bits = new AtomicLongArray((int) words);
+        this.bitCount = words * 64;
+        this.authoritative = authoritative;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedUsernames * Math.log(2)));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+
+        return z ^ (z >>> 33);
+    }
+
+    private static long hash(String username) {
+        long h = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < username.length(); i++) {
+            h = (h ^ username.charAt(i)) * 0x100000001b3L;
+        }
+
+        return mix(h);
+    }
+
+    private long index(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+
+    public void add(String username) {
+        long h1 = hash(username);
+        long h2 = mix(h1) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = index(h1, h2, i);
+
+            bits.accumulateAndGet((int) (index >>> 6), 1L << index, (word, mask) -> word | mask);
+        }
+    }
+
+    public boolean mightContain(String username) {
+        if (!warmed) {
+            return true;
+        }
+
+        long h1 = hash(username);
+        long h2 = mix(h1) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = index(h1, h2, i);
+
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    public boolean isAuthoritative() {
+        return authoritative && warmed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        AtomicLong count = new AtomicLong();
+
+        try (Stream<String> usernames = repository.streamAllUsernames()) {
+            usernames.forEach(username -> {
+                add(username);
+                count.incrementAndGet();
+            });
+        }
+
+        warmed = true;
+
+        log.info("Username filter warmed with {} usernames ({} bits, {} hash functions)",
+                count.get(), bitCount, hashFunctions);
+
+        if (!authoritative) {
+            log.info("Username filter is not authoritative, availability checks still query the database; " +
+                    "set users.username-filter.authoritative=true only when a single instance registers users");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.e_commerce.users.indexes;
+
+import com.e_commerce.users.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Component
+public class UsernameIndex {
+    private static final Logger log = LoggerFactory.getLogger(UsernameIndex.class);
+
+    private static final int RUN_SIZE = 65_536;
+
+    private final UserRepository repository;
+    private final int compactionThreshold;
+    private final ConcurrentSkipListSet<String> pending = new ConcurrentSkipListSet<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private volatile List<FrontCodedUsernames> runs = List.of();
+
+    public UsernameIndex(UserRepository repository,
+                         MeterRegistry meterRegistry,
+                         @Value("${users.username-index.compaction-threshold}") int compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be positive.");
+        }
+
+        this.repository = repository;
+        this.compactionThreshold = compactionThreshold;
+
+        Gauge.builder("users.username.index.size", this, UsernameIndex::size)
+                .description("Usernames held by the prefix index")
+                .register(meterRegistry);
+        Gauge.builder("users.username.index.memory", this, UsernameIndex::memoryBytes)
+                .description("Bytes held by the compacted prefix index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.username.index.runs", this, index -> index.runs.size())
+                .description("Compacted runs held by the prefix index")
+                .register(meterRegistry);
+    }
+
+    public int size() {
+        int size = pendingCount.get();
+
+        for (FrontCodedUsernames run : runs) {
+            size += run.size();
+        }
+
+        return size;
+    }
+
+    public long memoryBytes() {
+        long memoryBytes = 0;
+
+        for (FrontCodedUsernames run : runs) {
+            memoryBytes += run.memoryBytes();
+        }
+
+        return memoryBytes;
+    }
+
+    public void add(String username) {
+        if (pending.add(username)) {
+            pendingCount.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${users.username-index.compaction-interval}")
+    public void compactWhenDue() {
+        if (pendingCount.get() >= compactionThreshold) {
+            compact();
+        }
+    }
+
+    private static List<FrontCodedUsernames> tiered(List<FrontCodedUsernames> runs) {
+        List<FrontCodedUsernames> tiered = new ArrayList<>(runs);
+
+        while (tiered.size() > 1 &&
+                tiered.get(tiered.size() - 1).size() * 2L >= tiered.get(tiered.size() - 2).size()) {
+            FrontCodedUsernames last = tiered.remove(tiered.size() - 1);
+            FrontCodedUsernames previous = tiered.remove(tiered.size() - 1);
+
+            tiered.add(FrontCodedUsernames.merge(List.of(previous, last)));
+        }
+
+        return List.copyOf(tiered);
+    }
+
+    public void compact() {
+        if (!compactionLock.tryLock()) {
+            return;
+        }
+
+        try {
+            List<String> compacted = new ArrayList<>(pending);
+            if (compacted.isEmpty()) {
+                return;
+            }
+
+            List<FrontCodedUsernames> current = runs;
+            String[] added = compacted.stream()
+                    .filter(username -> current.stream().noneMatch(run -> run.contains(username)))
+                    .toArray(String[]::new);
+
+            if (added.length > 0) {
+                List<FrontCodedUsernames> next = new ArrayList<>(current);
+                next.add(FrontCodedUsernames.of(added, added.length));
+
+                runs = tiered(next);
+            }
+
+            compacted.forEach(username -> {
+                if (pending.remove(username)) {
+                    pendingCount.decrementAndGet();
+                }
+            });
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        TreeSet<String> suggestions = new TreeSet<>();
+
+        for (FrontCodedUsernames run : runs) {
+            suggestions.addAll(run.startingWith(prefix, limit));
+        }
+
+        int added = 0;
+        for (String username : pending.tailSet(prefix)) {
+            if (added++ == limit || !username.startsWith(prefix)) {
+                break;
+            }
+
+            suggestions.add(username);
+        }
+
+        return suggestions.stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        List<FrontCodedUsernames> runs = new ArrayList<>();
+        String[] run = new String[RUN_SIZE];
+        int count = 0;
+
+        try (Stream<String> streamed = repository.streamAllUsernames()) {
+            Iterator<String> iterator = streamed.iterator();
+
+            while (iterator.hasNext()) {
+                run[count++] = iterator.next();
+
+                if (count == RUN_SIZE) {
+                    Arrays.sort(run);
+                    runs.add(FrontCodedUsernames.of(run, count));
+                    count = 0;
+                }
+            }
+        }
+
+        Arrays.sort(run, 0, count);
+        runs.add(FrontCodedUsernames.of(run, count));
+
+        FrontCodedUsernames warmed;
+
+        compactionLock.lock();
+        try {
+            runs.addAll(this.runs);
+            warmed = FrontCodedUsernames.merge(runs);
+            this.runs = List.of(warmed);
+        } finally {
+            compactionLock.unlock();
+        }
+
+        log.info("Username index warmed with {} usernames ({} bytes, {} bytes per million usernames)",
+                warmed.size(), warmed.memoryBytes(),
+                warmed.size() == 0 ? 0 : warmed.memoryBytes() * 1_000_000 / warmed.size());
+    }
+}
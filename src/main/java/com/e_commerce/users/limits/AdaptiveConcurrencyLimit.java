@@ -0,0 +1,87 @@
+package com.e_commerce.users.limits;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThreshold;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimit(String name,
+                                    int initialLimit,
+                                    int minLimit,
+                                    int maxLimit,
+                                    Duration latencyThreshold,
+                                    MeterRegistry meterRegistry) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must be positive and ordered.");
+        }
+
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold.toNanos();
+        this.limit = new AtomicInteger(initialLimit);
+        this.rejected = Counter.builder("users.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("endpoints", name)
+                .register(meterRegistry);
+
+        Gauge.builder("users.concurrency.limit", limit, AtomicInteger::get)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoints", name)
+                .register(meterRegistry);
+        Gauge.builder("users.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests admitted and not yet completed")
+                .tag("endpoints", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+
+            if (current >= limit.get()) {
+                rejected.increment();
+
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+
+        if (dropped || latencyNanos > latencyThreshold) {
+            limit.updateAndGet(l -> Math.max(minLimit, (int) (l * BACKOFF_RATIO)));
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+}
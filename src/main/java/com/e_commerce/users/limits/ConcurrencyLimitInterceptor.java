@@ -0,0 +1,46 @@
+package com.e_commerce.users.limits;
+
+import com.e_commerce.users.exceptions.ConcurrencyLimitExceededException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+    private final AdaptiveConcurrencyLimit limit;
+    private final String startedAtAttribute;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimit limit) {
+        this.limit = limit;
+        this.startedAtAttribute = ConcurrencyLimitInterceptor.class.getName() + "." + limit.getName();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!limit.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(limit.getName());
+        }
+
+        request.setAttribute(startedAtAttribute, System.nanoTime());
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        if (request.isAsyncStarted() || !(request.getAttribute(startedAtAttribute) instanceof Long startedAt)) {
+            return;
+        }
+
+        request.removeAttribute(startedAtAttribute);
+
+        limit.release(System.nanoTime() - startedAt,
+                ex != null || response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    }
+}
@@ -0,0 +1,9 @@
+package com.e_commerce.users.model;
+
+import java.util.List;
+import java.util.Map;
+
+public record BatchGetResult<T>(Map<String, T> found,
+                                List<String> notFound) {
+
+}
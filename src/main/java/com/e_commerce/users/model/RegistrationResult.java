@@ -0,0 +1,26 @@
+package com.e_commerce.users.model;
+
+import java.util.List;
+
+public record RegistrationResult(String username,
+                                 Status status,
+                                 List<String> reasons) {
+    public enum Status {
+        REGISTERED,
+        INVALID,
+        DUPLICATED
+    }
+
+    public static RegistrationResult registered(String username) {
+        return new RegistrationResult(username, Status.REGISTERED, List.of());
+    }
+
+    public static RegistrationResult invalid(String username, List<String> reasons) {
+        return new RegistrationResult(username, Status.INVALID, reasons);
+    }
+
+    public static RegistrationResult duplicated(String username) {
+        return new RegistrationResult(username, Status.DUPLICATED,
+                List.of("Username '" + username + "' is already being used."));
+    }
+}
@@ -0,0 +1,7 @@
+package com.e_commerce.users.model;
+
+public record StoredCredentials(Long id,
+                                String password,
+                                Long version) {
+
+}
@@ -7,17 +7,29 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(uniqueConstraints = @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"))
 public class User {
+    public static final String USERNAME_CONSTRAINT = "uk_user_username";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id")
+    @SequenceGenerator(name = "user_id", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     @UsernameConstraint
-    @Column(unique = true, nullable = false)
+    @NaturalId
+    @Column(nullable = false)
     private String username;
 
     @NotEmpty(message = "Email must be provided.")
@@ -33,6 +45,10 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public User() {
 
     }
@@ -85,6 +101,15 @@ public class User {
         this.password = password;
     }
 
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof User user)) return false;
@@ -92,12 +117,13 @@ public class User {
                 Objects.equals(username, user.username) &&
                 Objects.equals(email, user.email) &&
                 Objects.equals(description, user.description) &&
-                Objects.equals(password, user.password);
+                Objects.equals(password, user.password) &&
+                Objects.equals(version, user.version);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, username, email, description, password);
+        return Objects.hash(id, username, email, description, password, version);
     }
 
     @Override
@@ -107,6 +133,7 @@ public class User {
                 ", username='" + username + '\'' +
                 ", email='" + email + '\'' +
                 ", description='" + description + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -1,5 +1,11 @@
 package com.e_commerce.users.model;
 
-public record UserEmail(String email) {
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+public record UserEmail(String email,
+                        @JsonIgnore Long version) {
+
+    public UserEmail(String email) {
+        this(email, null);
+    }
 }
@@ -0,0 +1,6 @@
+package com.e_commerce.users.model;
+
+public record UserEmailEntry(String username,
+                             String email) {
+
+}
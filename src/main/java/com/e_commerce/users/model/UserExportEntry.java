@@ -0,0 +1,10 @@
+package com.e_commerce.users.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public record UserExportEntry(@JsonIgnore Long id,
+                              String username,
+                              String email,
+                              String description) {
+
+}
@@ -0,0 +1,6 @@
+package com.e_commerce.users.model;
+
+public record UserInfoEntry(String username,
+                            String description) {
+
+}
@@ -0,0 +1,8 @@
+package com.e_commerce.users.model;
+
+import java.util.List;
+
+public record UserPage(List<UserSummary> users,
+                       String next) {
+
+}
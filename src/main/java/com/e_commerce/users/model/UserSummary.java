@@ -0,0 +1,7 @@
+package com.e_commerce.users.model;
+
+public record UserSummary(String username,
+                          String email,
+                          String description) {
+
+}
@@ -0,0 +1,9 @@
+package com.e_commerce.users.model;
+
+import java.util.List;
+
+public record UsernameAvailability(String username,
+                                   boolean available,
+                                   List<String> alternatives) {
+
+}
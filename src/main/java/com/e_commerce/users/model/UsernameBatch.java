@@ -0,0 +1,11 @@
+package com.e_commerce.users.model;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record UsernameBatch(
+        @NotEmpty(message = "Usernames must be provided.")
+        List<String> usernames) {
+
+}
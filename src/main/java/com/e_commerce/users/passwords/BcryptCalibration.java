@@ -0,0 +1,10 @@
+package com.e_commerce.users.passwords;
+
+import java.time.Duration;
+import java.util.SortedMap;
+
+public record BcryptCalibration(int cost, SortedMap<Integer, Duration> medians) {
+    public Duration median() {
+        return medians.get(cost);
+    }
+}
@@ -0,0 +1,81 @@
+package com.e_commerce.users.passwords;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+public class BcryptCostCalibrator {
+    private static final int MIN_BCRYPT_COST = 4;
+    private static final int MAX_BCRYPT_COST = 31;
+    private static final String SAMPLE_PASSWORD = "Calibration1@";
+
+    private final IntFunction<PasswordEncoder> encoders;
+    private final Duration targetLatency;
+    private final int minCost;
+    private final int maxCost;
+    private final int samples;
+
+    public BcryptCostCalibrator(IntFunction<PasswordEncoder> encoders,
+                                Duration targetLatency,
+                                int minCost,
+                                int maxCost,
+                                int samples) {
+        if (minCost < MIN_BCRYPT_COST || maxCost > MAX_BCRYPT_COST || minCost > maxCost) {
+            throw new IllegalArgumentException("Bcrypt cost range must be within 4 and 31.");
+        }
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Calibration samples must be positive.");
+        }
+
+        this.encoders = encoders;
+        this.targetLatency = targetLatency;
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.samples = samples;
+    }
+
+    private Duration measure(int cost) {
+        PasswordEncoder encoder = encoders.apply(cost);
+        long[] timings = new long[samples];
+
+        for (int i = 0; i < samples; i++) {
+            long startedAt = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            timings[i] = System.nanoTime() - startedAt;
+        }
+
+        Arrays.sort(timings);
+
+        return Duration.ofNanos(timings[samples / 2]);
+    }
+
+    public BcryptCalibration calibrate() {
+        SortedMap<Integer, Duration> medians = new TreeMap<>();
+        int cost = minCost;
+
+        encoders.apply(MIN_BCRYPT_COST).encode(SAMPLE_PASSWORD);
+
+        Duration median = measure(cost);
+
+        medians.put(cost, median);
+
+        while (cost < maxCost && median.multipliedBy(2).compareTo(targetLatency) <= 0) {
+            Duration next = measure(cost + 1);
+            medians.put(cost + 1, next);
+
+            if (next.compareTo(targetLatency) > 0) {
+                break;
+            }
+
+            cost++;
+            median = next;
+        }
+
+        return new BcryptCalibration(cost, Collections.unmodifiableSortedMap(medians));
+    }
+}
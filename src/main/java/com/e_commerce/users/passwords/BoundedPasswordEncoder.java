@@ -0,0 +1,146 @@
+package com.e_commerce.users.passwords;
+
+import com.e_commerce.users.exceptions.PasswordHashingUnavailableException;
+import com.e_commerce.users.profiling.PasswordHashingEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int threads,
+                                  int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("users.password.hashing")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("users.password.hashing")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("users.password.hashing.wait")
+                .description("Time password hashing tasks spent queued")
+                .register(meterRegistry);
+
+        Gauge.builder("users.password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("users.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks being executed")
+                .register(meterRegistry);
+    }
+
+    private <T> Future<T> submit(String operation, Timer timer, Callable<T> task) {
+        long submittedAt = System.nanoTime();
+
+        try {
+            return executor.submit(() -> {
+                long queued = System.nanoTime() - submittedAt;
+                waitTimer.record(queued, TimeUnit.NANOSECONDS);
+
+                PasswordHashingEvent event = new PasswordHashingEvent(operation, queued);
+                event.begin();
+                try {
+                    return timer.recordCallable(task);
+                } finally {
+                    event.commit();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingUnavailableException();
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while waiting for password hashing.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+
+    private <T> T execute(String operation, Timer timer, Callable<T> task) {
+        return await(submit(operation, timer, task));
+    }
+
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        int window = executor.getCorePoolSize();
+
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<Future<String>> futures = new ArrayList<>(window);
+
+            try {
+                for (CharSequence rawPassword : rawPasswords.subList(
+                        from, Math.min(from + window, rawPasswords.size()))) {
+                    futures.add(submit("encode", encodeTimer, () -> delegate.encode(rawPassword)));
+                }
+
+                for (Future<String> future : futures) {
+                    encoded.add(await(future));
+                }
+            } finally {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+
+        return encoded;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute("encode", encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute("matches", matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
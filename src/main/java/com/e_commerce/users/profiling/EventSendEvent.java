@@ -0,0 +1,22 @@
+package com.e_commerce.users.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.e_commerce.users.EventSend")
+@Label("Event Send")
+@Category({"Users", "Messaging"})
+@Description("A batch of events sent to the broker slower than the configured threshold")
+@StackTrace(false)
+@Threshold("20 ms")
+public class EventSendEvent extends Event {
+    @Label("Routing Key")
+    private final String routingKey;
+
+    @Label("Batch Size")
+    private final int batchSize;
+
+    public EventSendEvent(String routingKey, int batchSize) {
+        this.routingKey = routingKey;
+        this.batchSize = batchSize;
+    }
+}
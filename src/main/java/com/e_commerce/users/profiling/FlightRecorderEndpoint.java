@@ -0,0 +1,184 @@
+package com.e_commerce.users.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    private static final String RECORDING_NAME = "users";
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final String settings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Duration userOperationThreshold;
+    private final Duration repositoryCallThreshold;
+    private final Duration passwordHashingThreshold;
+    private final Duration eventSendThreshold;
+    private final boolean startOnReady;
+    private Recording recording;
+    private Path dump;
+
+    public FlightRecorderEndpoint(@Value("${users.flight-recorder.settings}") String settings,
+                                  @Value("${users.flight-recorder.max-age}") Duration maxAge,
+                                  @Value("${users.flight-recorder.max-size}") DataSize maxSize,
+                                  @Value("${users.flight-recorder.thresholds.user-operation}") Duration userOperationThreshold,
+                                  @Value("${users.flight-recorder.thresholds.repository-call}") Duration repositoryCallThreshold,
+                                  @Value("${users.flight-recorder.thresholds.password-hashing}") Duration passwordHashingThreshold,
+                                  @Value("${users.flight-recorder.thresholds.event-send}") Duration eventSendThreshold,
+                                  @Value("${users.flight-recorder.start-on-ready}") boolean startOnReady) {
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.userOperationThreshold = userOperationThreshold;
+        this.repositoryCallThreshold = repositoryCallThreshold;
+        this.passwordHashingThreshold = passwordHashingThreshold;
+        this.eventSendThreshold = eventSendThreshold;
+        this.startOnReady = startOnReady;
+    }
+
+    private boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+
+        status.put("state", recording == null ? RecordingState.CLOSED : recording.getState());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("size", recording.getSize());
+        }
+
+        return status;
+    }
+
+    private Recording createRecording() throws IOException, ParseException {
+        Recording created = new Recording(Configuration.getConfiguration(settings));
+
+        created.setName(RECORDING_NAME);
+        created.setToDisk(true);
+        created.setMaxAge(maxAge);
+        created.setMaxSize(maxSize.toBytes());
+        SENSITIVE_EVENTS.forEach(created::disable);
+        created.enable(UserOperationEvent.class).withThreshold(userOperationThreshold);
+        created.enable(RepositoryCallEvent.class).withThreshold(repositoryCallThreshold);
+        created.enable(PasswordHashingEvent.class).withThreshold(passwordHashingThreshold);
+        created.enable(EventSendEvent.class).withThreshold(eventSendThreshold);
+
+        return created;
+    }
+
+    private void deleteDump() {
+        if (dump == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(dump);
+        } catch (IOException e) {
+            log.warn("Failed to delete flight recording dump {}", dump, e);
+        }
+
+        dump = null;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start() {
+        if (!isRecording()) {
+            close();
+
+            try {
+                recording = createRecording();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ParseException e) {
+                throw new IllegalStateException("Flight recorder settings " + settings + " are invalid.", e);
+            }
+
+            recording.start();
+
+            log.info("Flight recording started with {} settings", settings);
+        }
+
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (isRecording()) {
+            recording.stop();
+
+            log.info("Flight recording stopped");
+        }
+
+        close();
+
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump() {
+        if (!isRecording()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        deleteDump();
+
+        try {
+            dump = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            recording.dump(dump);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new WebEndpointResponse<>(new FileSystemResource(dump));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (startOnReady) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+
+        deleteDump();
+    }
+}
@@ -0,0 +1,24 @@
+package com.e_commerce.users.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.e_commerce.users.PasswordHashing")
+@Label("Password Hashing")
+@Category({"Users", "Passwords"})
+@Description("A password encoding or verification slower than the configured threshold")
+@StackTrace(false)
+@Threshold("250 ms")
+public class PasswordHashingEvent extends Event {
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Queued")
+    @Description("Time the task waited for a hashing thread")
+    @Timespan(Timespan.NANOSECONDS)
+    private final long queued;
+
+    public PasswordHashingEvent(String operation, long queued) {
+        this.operation = operation;
+        this.queued = queued;
+    }
+}
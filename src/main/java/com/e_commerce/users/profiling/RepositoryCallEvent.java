@@ -0,0 +1,29 @@
+package com.e_commerce.users.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.e_commerce.users.RepositoryCall")
+@Label("Repository Call")
+@Category({"Users", "Persistence"})
+@Description("A repository method call slower than the configured threshold")
+@StackTrace(false)
+@Threshold("10 ms")
+public class RepositoryCallEvent extends Event {
+    @Label("Repository")
+    private final String repository;
+
+    @Label("Method")
+    private final String method;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public RepositoryCallEvent(String repository, String method) {
+        this.repository = repository;
+        this.method = method;
+    }
+
+    void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
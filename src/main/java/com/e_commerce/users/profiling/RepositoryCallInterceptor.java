@@ -0,0 +1,28 @@
+package com.e_commerce.users.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+public class RepositoryCallInterceptor implements MethodInterceptor {
+    private final String repository;
+
+    public RepositoryCallInterceptor(String repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent(repository, invocation.getMethod().getName());
+
+        event.begin();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            event.setFailed(true);
+
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
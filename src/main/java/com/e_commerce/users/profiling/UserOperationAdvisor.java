@@ -0,0 +1,45 @@
+package com.e_commerce.users.profiling;
+
+import com.e_commerce.users.UserService;
+import com.e_commerce.users.model.EmailChange;
+import com.e_commerce.users.model.PasswordChange;
+import com.e_commerce.users.model.User;
+import com.e_commerce.users.model.UserInfoChange;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.function.Function;
+
+public class UserOperationAdvisor extends StaticMethodMatcherPointcutAdvisor {
+    private static final Function<Object[], String> USERNAME_ARGUMENT =
+            arguments -> arguments[0] instanceof String username ? username : null;
+
+    private static final Map<String, Function<Object[], String>> USERNAMES = Map.of(
+            "registerUser", arguments -> arguments[0] instanceof User user ? user.getUsername() : null,
+            "retrieveUserInfo", USERNAME_ARGUMENT,
+            "retrieveUserInfoAsync", USERNAME_ARGUMENT,
+            "retrieveUserEmail", USERNAME_ARGUMENT,
+            "retrieveUserEmailAsync", USERNAME_ARGUMENT,
+            "checkUsernameAvailability", USERNAME_ARGUMENT,
+            "updateUserPassword", arguments -> arguments[0] instanceof PasswordChange change &&
+                    change.credentials() != null ? change.credentials().username() : null,
+            "updateUserEmail", arguments -> arguments[0] instanceof EmailChange change &&
+                    change.credentials() != null ? change.credentials().username() : null,
+            "updateUserInfo", arguments -> arguments[0] instanceof UserInfoChange change ? change.username() : null);
+
+    public UserOperationAdvisor() {
+        super(new UserOperationInterceptor(USERNAMES));
+
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return UserService.class.isAssignableFrom(targetClass) &&
+                method.getDeclaringClass() == UserService.class &&
+                Modifier.isPublic(method.getModifiers());
+    }
+}
@@ -0,0 +1,33 @@
+package com.e_commerce.users.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.e_commerce.users.UserOperation")
+@Label("User Operation")
+@Category({"Users", "Service"})
+@Description("A user service operation slower than the configured threshold")
+@StackTrace(false)
+@Threshold("20 ms")
+public class UserOperationEvent extends Event {
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Username Hash")
+    @Description("Truncated SHA-256 of the username the operation was called with")
+    private String usernameHash;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public UserOperationEvent(String operation) {
+        this.operation = operation;
+    }
+
+    void setUsernameHash(String usernameHash) {
+        this.usernameHash = usernameHash;
+    }
+
+    void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,77 @@
+package com.e_commerce.users.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class UserOperationInterceptor implements MethodInterceptor {
+    private static final int USERNAME_HASH_BYTES = 8;
+
+    private final Map<String, Function<Object[], String>> usernames;
+
+    public UserOperationInterceptor(Map<String, Function<Object[], String>> usernames) {
+        this.usernames = usernames;
+    }
+
+    static String hashUsername(String username) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(username.getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest, 0, USERNAME_HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String usernameOf(String operation, Object[] arguments) {
+        Function<Object[], String> username = usernames.get(operation);
+
+        return username == null ? null : username.apply(arguments);
+    }
+
+    private void commit(UserOperationEvent event, String operation, Object[] arguments, boolean failed) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            String username = usernameOf(operation, arguments);
+
+            event.setUsernameHash(username == null ? null : hashUsername(username));
+            event.setFailed(failed);
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String operation = invocation.getMethod().getName();
+        UserOperationEvent event = new UserOperationEvent(operation);
+        Object[] arguments = invocation.getArguments();
+        Object result;
+
+        event.begin();
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            commit(event, operation, arguments, true);
+
+            throw e;
+        }
+
+        if (result instanceof CompletableFuture<?> future && !future.isDone()) {
+            future.whenComplete((value, e) -> commit(event, operation, arguments, e != null));
+        } else {
+            commit(event, operation, arguments, result instanceof CompletableFuture<?> future &&
+                    future.isCompletedExceptionally());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.e_commerce.users.reads;
+
+import com.e_commerce.users.exceptions.UserReadsUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+public class BoundedReadExecutor implements AutoCloseable {
+    private final ThreadPoolExecutor executor;
+
+    public BoundedReadExecutor(MeterRegistry meterRegistry,
+                               @Value("${users.reads.threads}") int threads,
+                               @Value("${users.reads.queue-capacity}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-reads-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("users.reads.queue", executor, e -> e.getQueue().size())
+                .description("User reads waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("users.reads.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("User reads being executed")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> read) {
+        try {
+            return CompletableFuture.supplyAsync(read, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new UserReadsUnavailableException());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,109 @@
+package com.e_commerce.users.reads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class ReadCoalescer {
+    private final MeterRegistry meterRegistry;
+    private final Map<ReadKey, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+
+    public ReadCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    private Counter coalescedCounter(String group) {
+        return coalescedCounters.computeIfAbsent(group, g -> Counter.builder("users.reads.coalesced")
+                .description("Reads served by joining an identical read already in flight")
+                .tag("read", g)
+                .register(meterRegistry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> join(ReadKey key, CompletableFuture<T> leader) {
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, leader);
+        if (existing == null) {
+            return null;
+        }
+
+        coalescedCounter(key.group()).increment();
+
+        return (CompletableFuture<T>) existing;
+    }
+
+    private <T> void complete(ReadKey key, CompletableFuture<T> leader, T value, Throwable e) {
+        inFlight.remove(key, leader);
+
+        if (e != null) {
+            leader.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                    ? e.getCause()
+                    : e);
+        } else {
+            leader.complete(value);
+        }
+    }
+
+    public <T> T execute(String group, String key, Supplier<T> read) {
+        ReadKey readKey = new ReadKey(group, key);
+        CompletableFuture<T> leader = new CompletableFuture<>();
+
+        CompletableFuture<T> existing = join(readKey, leader);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+
+                throw e;
+            }
+        }
+
+        T value;
+        try {
+            value = read.get();
+        } catch (RuntimeException | Error e) {
+            complete(readKey, leader, null, e);
+
+            throw e;
+        }
+
+        complete(readKey, leader, value, null);
+
+        return value;
+    }
+
+    public <T> CompletableFuture<T> executeAsync(String group, String key, Supplier<CompletableFuture<T>> read) {
+        ReadKey readKey = new ReadKey(group, key);
+        CompletableFuture<T> leader = new CompletableFuture<>();
+
+        CompletableFuture<T> existing = join(readKey, leader);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            read.get().whenComplete((value, e) -> complete(readKey, leader, value, e));
+        } catch (RuntimeException e) {
+            complete(readKey, leader, null, e);
+        }
+
+        return leader.copy();
+    }
+
+    public int getInFlightReads() {
+        return inFlight.size();
+    }
+
+    private record ReadKey(String group, String key) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.limits.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptiveConcurrencyLimitTests {
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+    private MeterRegistry meterRegistry;
+
+    private AdaptiveConcurrencyLimit limit;
+
+    @BeforeEach
+    public void createLimit() {
+        meterRegistry = new SimpleMeterRegistry();
+        limit = new AdaptiveConcurrencyLimit("reads", 10, 2, 12, Duration.ofMillis(100), meterRegistry);
+    }
+
+    @Test
+    public void excessRequestsAreRejected() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(10);
+        assertThat(meterRegistry.get("users.concurrency.rejected").tag("endpoints", "reads").counter().count())
+                .isEqualTo(1);
+
+        limit.release(FAST, false);
+
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void limitGrowsAdditivelyWhenSaturatedAndFast() {
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+        }
+
+        limit.release(FAST, false);
+        limit.release(FAST, false);
+        limit.release(FAST, false);
+
+        assertThat(limit.getLimit()).isEqualTo(12);
+    }
+
+    @Test
+    public void limitDoesNotGrowWhenMostlyIdle() {
+        limit.tryAcquire();
+        limit.release(FAST, false);
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void limitShrinksMultiplicativelyOnSlowOrDroppedRequests() {
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        limit.tryAcquire();
+        limit.release(FAST, true);
+
+        assertThat(limit.getLimit()).isEqualTo(8);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(SLOW, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(2);
+        assertThat(meterRegistry.get("users.concurrency.limit").tag("endpoints", "reads").gauge().value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void unorderedLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit("reads", 1, 2, 12, Duration.ofMillis(100), meterRegistry));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit("reads", 20, 2, 12, Duration.ofMillis(100), meterRegistry));
+    }
+}
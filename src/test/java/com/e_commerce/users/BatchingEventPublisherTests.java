@@ -0,0 +1,128 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.events.BatchingEventPublisher;
+import com.e_commerce.users.events.EventSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchingEventPublisherTests {
+    @Mock
+    private RabbitTemplate rabbit;
+
+    @Mock
+    private RabbitOperations operations;
+
+    private final List<CorrelationData> correlations = new ArrayList<>();
+
+    private MeterRegistry meterRegistry;
+
+    private BatchingEventPublisher publisher;
+
+    private static Message message(String body) {
+        return new Message(body.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+
+    @BeforeEach
+    public void createPublisher() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new BatchingEventPublisher(rabbit, meterRegistry, 2, 2, Duration.ofMillis(50));
+
+        lenient().when(rabbit.invoke(any()))
+                .thenAnswer(invocation -> invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0)
+                        .doInRabbit(operations));
+        lenient().doAnswer(invocation -> correlations.add(invocation.getArgument(3)))
+                .when(operations).send(any(), any(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    public void eventsAreBufferedUntilBatchIsFull() {
+        publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("1"));
+
+        verifyNoInteractions(rabbit);
+
+        publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("2"));
+
+        verify(rabbit, times(1)).invoke(any());
+        verify(operations, times(2)).send(eq(EventSender.RABBIT_TOPIC_EXCHANGE),
+                eq(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY), any(Message.class), any(CorrelationData.class));
+        assertThat(meterRegistry.get("users.events.batch.size").summary().max()).isEqualTo(2);
+        assertThat(meterRegistry.get("users.events.send")
+                .tag("routing.key", EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY)
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    public void eventsAreBatchedPerRoutingKey() {
+        publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("1"));
+        publisher.publish("update.info", message("2"));
+
+        verifyNoInteractions(rabbit);
+
+        publisher.flush();
+
+        verify(rabbit, times(2)).invoke(any());
+        verify(operations, times(1)).send(eq(EventSender.RABBIT_TOPIC_EXCHANGE),
+                eq(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY), any(Message.class), any(CorrelationData.class));
+        verify(operations, times(1)).send(eq(EventSender.RABBIT_TOPIC_EXCHANGE),
+                eq("update.info"), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    public void confirmsCompletePublishedEvents() {
+        CompletableFuture<Void> acked = publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("1"));
+        CompletableFuture<Void> nacked = publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("2"));
+
+        assertThat(meterRegistry.get("users.events.in.flight").gauge().value()).isEqualTo(2);
+
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        correlations.get(1).getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+
+        assertThat(acked).isCompleted();
+        assertThat(nacked).isCompletedExceptionally();
+        assertThat(meterRegistry.get("users.events.in.flight").gauge().value()).isEqualTo(0);
+        assertThat(meterRegistry.get("users.events.confirm.latency").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void eventsBeyondInFlightLimitAreRejected() {
+        publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("1"));
+        publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("2"));
+
+        CompletableFuture<Void> rejected = publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("3"));
+        publisher.flush();
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(correlations).hasSize(2);
+
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        CompletableFuture<Void> accepted = publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, message("4"));
+        publisher.flush();
+
+        assertThat(accepted).isNotDone();
+        assertThat(correlations).hasSize(3);
+    }
+}
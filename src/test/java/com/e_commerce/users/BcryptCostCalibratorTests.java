@@ -0,0 +1,69 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.passwords.BcryptCalibration;
+import com.e_commerce.users.passwords.BcryptCostCalibrator;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BcryptCostCalibratorTests {
+    private static PasswordEncoder doublingEncoder(int cost) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    Thread.sleep(1L << (cost - 4));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void highestCostWithinTargetIsSelected() {
+        BcryptCalibration calibration = new BcryptCostCalibrator(
+                BcryptCostCalibratorTests::doublingEncoder, Duration.ofMillis(20), 4, 31, 3).calibrate();
+
+        assertThat(calibration.cost()).isEqualTo(8);
+        assertThat(calibration.median()).isBetween(Duration.ofMillis(16), Duration.ofMillis(20));
+        assertThat(calibration.medians()).containsKeys(4, 5, 6, 7, 8);
+    }
+
+    @Test
+    public void costIsCappedAtMaximum() {
+        BcryptCalibration calibration = new BcryptCostCalibrator(
+                BcryptCostCalibratorTests::doublingEncoder, Duration.ofMillis(20), 4, 6, 3).calibrate();
+
+        assertThat(calibration.cost()).isEqualTo(6);
+        assertThat(calibration.medians()).containsOnlyKeys(4, 5, 6);
+    }
+
+    @Test
+    public void minimumCostIsKeptOnSlowMachines() {
+        BcryptCalibration calibration = new BcryptCostCalibrator(
+                BcryptCostCalibratorTests::doublingEncoder, Duration.ofMillis(1), 6, 10, 3).calibrate();
+
+        assertThat(calibration.cost()).isEqualTo(6);
+        assertThat(calibration.medians()).containsOnlyKeys(6);
+    }
+
+    @Test
+    public void invalidCostRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BcryptCostCalibrator(
+                BcryptCostCalibratorTests::doublingEncoder, Duration.ofMillis(20), 3, 10, 3));
+        assertThrows(IllegalArgumentException.class, () -> new BcryptCostCalibrator(
+                BcryptCostCalibratorTests::doublingEncoder, Duration.ofMillis(20), 12, 10, 3));
+    }
+}
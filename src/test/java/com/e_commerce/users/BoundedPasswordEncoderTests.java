@@ -0,0 +1,113 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.exceptions.PasswordHashingUnavailableException;
+import com.e_commerce.users.passwords.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoundedPasswordEncoderTests {
+    @Mock
+    private PasswordEncoder delegate;
+
+    private MeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void createBoundedPasswordEncoder() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    public void closeBoundedPasswordEncoder() {
+        passwordEncoder.close();
+    }
+
+    @Test
+    public void passwordIsEncodedByDelegate() {
+        when(delegate.encode("password")).thenReturn("gibberish");
+
+        assertThat(passwordEncoder.encode("password")).isEqualTo("gibberish");
+
+        assertThat(meterRegistry.get("users.password.hashing").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void passwordIsMatchedByDelegate() {
+        when(delegate.matches("password", "gibberish")).thenReturn(true);
+
+        assertThat(passwordEncoder.matches("password", "gibberish")).isTrue();
+
+        assertThat(meterRegistry.get("users.password.hashing").tag("operation", "matches").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void passwordsAreEncodedInOrder() {
+        passwordEncoder.close();
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 2, 1, meterRegistry);
+
+        when(delegate.encode(anyString())).thenAnswer(invocation -> "encoded " + invocation.getArgument(0));
+
+        assertThat(passwordEncoder.encodeAll(List.of("first", "second", "third", "fourth", "fifth")))
+                .containsExactly("encoded first", "encoded second", "encoded third", "encoded fourth", "encoded fifth");
+
+        assertThat(meterRegistry.get("users.password.hashing").tag("operation", "encode").timer().count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    public void delegateFailureIsPropagated() {
+        when(delegate.matches("password", "gibberish")).thenThrow(new IllegalArgumentException("bad hash"));
+
+        assertThrows(IllegalArgumentException.class, () -> passwordEncoder.matches("password", "gibberish"));
+    }
+
+    @Test
+    public void hashingIsRejectedWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(delegate.encode(anyString())).thenAnswer(invocation -> {
+            release.await();
+
+            return "gibberish";
+        });
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("users.password.hashing.active").gauge().value() == 1);
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("users.password.hashing.queue").gauge().value() == 1);
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> passwordEncoder.encode("third"));
+
+        release.countDown();
+
+        assertThat(running.get()).isEqualTo("gibberish");
+        assertThat(queued.get()).isEqualTo("gibberish");
+    }
+}
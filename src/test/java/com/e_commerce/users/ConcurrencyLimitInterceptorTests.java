@@ -0,0 +1,83 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.exceptions.ConcurrencyLimitExceededException;
+import com.e_commerce.users.limits.AdaptiveConcurrencyLimit;
+import com.e_commerce.users.limits.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConcurrencyLimitInterceptorTests {
+    private AdaptiveConcurrencyLimit limit;
+
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    public void createInterceptor() {
+        limit = new AdaptiveConcurrencyLimit("reads", 1, 1, 10, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        interceptor = new ConcurrencyLimitInterceptor(limit);
+    }
+
+    @Test
+    public void permitIsReleasedOnCompletion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/username/info");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new Object())).isTrue();
+        assertThat(limit.getInFlight()).isEqualTo(1);
+
+        assertThrows(ConcurrencyLimitExceededException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object()));
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(limit.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void permitIsHeldUntilAsyncDispatchCompletes() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/username/info");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+
+        request.setAsyncSupported(true);
+        request.startAsync();
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(limit.getInFlight()).isEqualTo(1);
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        assertThat(interceptor.preHandle(request, response, new Object())).isTrue();
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(limit.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void serverErrorsShrinkTheLimit() {
+        limit = new AdaptiveConcurrencyLimit("reads", 5, 1, 10, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        interceptor = new ConcurrencyLimitInterceptor(limit);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/username/info");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        response.setStatus(500);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,86 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.configuration.VirtualThreadConfiguration;
+import com.e_commerce.users.datasources.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimitedDataSourceTests {
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    public void createDataSource() {
+        dataSource = new ConcurrencyLimitedDataSource(targetDataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    public void connectionsBeyondLimitAreRejected() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThat(dataSource.getAvailablePermits()).isZero();
+        }
+
+        assertThat(dataSource.getAvailablePermits()).isOne();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void repeatedCloseReleasesOnce() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertThat(dataSource.getAvailablePermits()).isOne();
+    }
+
+    @Test
+    public void failedConnectionReleasesPermit() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("unavailable"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertThat(dataSource.getAvailablePermits()).isOne();
+    }
+
+    @Test
+    public void hikariDataSourceIsLimitedToItsPoolSize() {
+        HikariDataSource hikariDataSource = new HikariDataSource();
+        hikariDataSource.setMaximumPoolSize(3);
+
+        Object limited = VirtualThreadConfiguration.concurrencyLimitedDataSourcePostProcessor()
+                .postProcessAfterInitialization(hikariDataSource, "dataSource");
+
+        assertThat(limited).isInstanceOfSatisfying(ConcurrencyLimitedDataSource.class,
+                limitedDataSource -> assertThat(limitedDataSource.getAvailablePermits()).isEqualTo(3));
+    }
+}
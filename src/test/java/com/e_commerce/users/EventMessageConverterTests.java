@@ -0,0 +1,75 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.events.EmailUpdate;
+import com.e_commerce.users.events.EventMessageConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EventMessageConverterTests {
+    private final EmailUpdate update = new EmailUpdate("username", "username@email.com");
+
+    @Test
+    public void jsonEventIsReadByJacksonConverter() {
+        EventMessageConverter converter = new EventMessageConverter(
+                EventMessageConverter.JSON_CONTENT_TYPE, EmailUpdate.class);
+
+        Message message = converter.toMessage(update, new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo("application/json");
+        assertThat(message.getMessageProperties().<String>getHeader("__TypeId__"))
+                .isEqualTo(EmailUpdate.class.getName());
+        assertThat(new Jackson2JsonMessageConverter().fromMessage(message)).isEqualTo(update);
+        assertThat(converter.fromMessage(message)).isEqualTo(update);
+    }
+
+    @Test
+    public void jacksonConverterEventIsRead() {
+        EventMessageConverter converter = new EventMessageConverter(
+                EventMessageConverter.JSON_CONTENT_TYPE, EmailUpdate.class);
+
+        Message message = new Jackson2JsonMessageConverter().toMessage(update, new MessageProperties());
+
+        assertThat(converter.fromMessage(message)).isEqualTo(update);
+    }
+
+    @Test
+    public void cborEventIsSmallerAndRoundTrips() {
+        EventMessageConverter converter = new EventMessageConverter(
+                EventMessageConverter.CBOR_CONTENT_TYPE, EmailUpdate.class);
+
+        Message message = converter.toMessage(update, new MessageProperties());
+        Message jsonMessage = new Jackson2JsonMessageConverter().toMessage(update, new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo("application/cbor");
+        assertThat(message.getBody().length).isLessThan(jsonMessage.getBody().length);
+        assertThat(converter.fromMessage(message)).isEqualTo(update);
+    }
+
+    @Test
+    public void unknownEventTypeIsRejected() {
+        EventMessageConverter converter = new EventMessageConverter(
+                EventMessageConverter.JSON_CONTENT_TYPE, EmailUpdate.class);
+
+        assertThrows(MessageConversionException.class,
+                () -> converter.toMessage("not an event", new MessageProperties()));
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(EventMessageConverter.JSON_CONTENT_TYPE);
+        properties.setHeader("__TypeId__", String.class.getName());
+
+        assertThrows(MessageConversionException.class,
+                () -> converter.fromMessage(new Message("\"value\"".getBytes(), properties)));
+    }
+
+    @Test
+    public void unsupportedContentTypeIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventMessageConverter("text/plain", EmailUpdate.class));
+    }
+}
@@ -1,32 +1,81 @@
 package com.e_commerce.users;
 
+import com.e_commerce.users.events.BatchingEventPublisher;
 import com.e_commerce.users.events.EmailUpdate;
 import com.e_commerce.users.events.EventSender;
+import com.e_commerce.users.events.OutboxEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class EventSenderTests {
     @Mock
     private RabbitTemplate rabbit;
 
+    @Mock
+    private BatchingEventPublisher batchingPublisher;
+
     @InjectMocks
     private EventSender eventSender;
 
+    private static OutboxEvent outboxEvent(long id) {
+        OutboxEvent event = new OutboxEvent(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, "application/json",
+                EmailUpdate.class.getName(),
+                "{\"username\":\"username\",\"email\":\"username@email.com\"}".getBytes(StandardCharsets.UTF_8));
+        event.setId(id);
+
+        return event;
+    }
+
+    @Test
+    public void confirmedOutboxEventsAreReturned() {
+        OutboxEvent acked = outboxEvent(1);
+        OutboxEvent nacked = outboxEvent(2);
+
+        when(batchingPublisher.publish(eq(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY), any(Message.class)))
+                .thenReturn(CompletableFuture.completedFuture(null),
+                        CompletableFuture.failedFuture(new AmqpException("nack")));
+
+        assertThat(eventSender.sendOutboxEvents(List.of(acked, nacked), Duration.ofSeconds(1)))
+                .containsExactly(acked);
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(batchingPublisher, times(2))
+                .publish(eq(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY), message.capture());
+        verify(batchingPublisher, times(1)).flush();
+
+        assertThat(message.getAllValues().get(0).getBody()).isEqualTo(acked.getPayload());
+        assertThat(message.getAllValues().get(0).getMessageProperties().getMessageId()).isEqualTo("1");
+        assertThat(message.getAllValues().get(0).getMessageProperties().getContentType())
+                .isEqualTo("application/json");
+        assertThat(message.getAllValues().get(0).getMessageProperties().<String>getHeader("__TypeId__"))
+                .isEqualTo(EmailUpdate.class.getName());
+    }
+
     @Test
-    public void emailUpdateEventIsSent() {
-        EmailUpdate update = new EmailUpdate("username", "username@email.com");
+    public void unconfirmedOutboxEventsAreNotReturned() {
+        OutboxEvent event = outboxEvent(1);
 
-        eventSender.sendEmailUpdate(update);
+        when(batchingPublisher.publish(eq(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY), any(Message.class)))
+                .thenReturn(new CompletableFuture<>());
 
-        verify(rabbit, times(1))
-                .convertAndSend(EventSender.RABBIT_TOPIC_EXCHANGE, EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, update);
+        assertThat(eventSender.sendOutboxEvents(List.of(event), Duration.ofMillis(50))).isEmpty();
     }
 }
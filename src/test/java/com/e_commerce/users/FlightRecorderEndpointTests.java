@@ -0,0 +1,176 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.events.BatchingEventPublisher;
+import com.e_commerce.users.events.EventSender;
+import com.e_commerce.users.profiling.FlightRecorderEndpoint;
+import com.e_commerce.users.profiling.RepositoryCallInterceptor;
+import com.e_commerce.users.profiling.UserOperationInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class FlightRecorderEndpointTests {
+    public interface Lookup {
+        String find(String username);
+
+        CompletableFuture<String> findAsync(String username);
+
+        List<String> list(String prefix);
+    }
+
+    private FlightRecorderEndpoint endpoint;
+
+    private Lookup lookup;
+
+    @BeforeEach
+    public void createEndpoint() {
+        endpoint = new FlightRecorderEndpoint("default", Duration.ofMinutes(1), DataSize.ofMegabytes(16),
+                Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, false);
+
+        ProxyFactory proxyFactory = new ProxyFactory(new Lookup() {
+            @Override
+            public String find(String username) {
+                return username;
+            }
+
+            @Override
+            public CompletableFuture<String> findAsync(String username) {
+                return CompletableFuture.failedFuture(new IllegalStateException());
+            }
+
+            @Override
+            public List<String> list(String prefix) {
+                return List.of(prefix);
+            }
+        });
+        proxyFactory.addAdvice(new UserOperationInterceptor(Map.of(
+                "find", arguments -> (String) arguments[0],
+                "findAsync", arguments -> (String) arguments[0])));
+        proxyFactory.addAdvice(new RepositoryCallInterceptor("Lookup"));
+
+        lookup = (Lookup) proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    public void closeEndpoint() {
+        endpoint.close();
+    }
+
+    private List<RecordedEvent> dumpedEvents(String type) throws IOException {
+        WebEndpointResponse<Resource> response = endpoint.dump();
+
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+
+        return RecordingFile.readAllEvents(response.getBody().getFile().toPath())
+                .stream()
+                .filter(event -> event.getEventType().getName().equals(type))
+                .toList();
+    }
+
+    @Test
+    public void nothingIsDumpedWithoutRecording() {
+        assertThat(endpoint.dump().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    public void recordingIsStartedAndStopped() {
+        assertThat(endpoint.start()).containsEntry("state", RecordingState.RUNNING);
+        assertThat(endpoint.start()).containsEntry("state", RecordingState.RUNNING);
+        assertThat(endpoint.stop()).containsEntry("state", RecordingState.CLOSED);
+    }
+
+    @Test
+    public void userOperationsAreRecordedWithHashedUsername() throws IOException {
+        endpoint.start();
+
+        lookup.find("username");
+        lookup.findAsync("username");
+
+        List<RecordedEvent> events = dumpedEvents("com.e_commerce.users.UserOperation");
+
+        assertThat(events).extracting(event -> event.getString("operation"))
+                .containsExactly("find", "findAsync");
+        assertThat(events).extracting(event -> event.getBoolean("failed"))
+                .containsExactly(false, true);
+        assertThat(events).extracting(event -> event.getString("usernameHash"))
+                .allMatch(hash -> hash.length() == 16 && !hash.contains("username"));
+    }
+
+    @Test
+    public void operationsWithoutUsernameAreRecordedWithoutHash() throws IOException {
+        endpoint.start();
+
+        lookup.list("user");
+
+        assertThat(dumpedEvents("com.e_commerce.users.UserOperation"))
+                .extracting(event -> event.getString("usernameHash"))
+                .containsExactly((String) null);
+    }
+
+    @Test
+    public void repositoryCallsAreRecorded() throws IOException {
+        endpoint.start();
+
+        lookup.find("username");
+
+        assertThat(dumpedEvents("com.e_commerce.users.RepositoryCall"))
+                .extracting(event -> event.getString("repository") + "." + event.getString("method"))
+                .containsExactly("Lookup.find");
+    }
+
+    @Test
+    public void eventSendsAreRecordedWithBatchSize() throws IOException {
+        BatchingEventPublisher publisher = new BatchingEventPublisher(mock(RabbitTemplate.class),
+                new SimpleMeterRegistry(), 2, 10, Duration.ofMillis(50));
+
+        endpoint.start();
+
+        publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, new Message(new byte[0]));
+        publisher.publish(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, new Message(new byte[0]));
+
+        assertThat(dumpedEvents("com.e_commerce.users.EventSend"))
+                .extracting(event -> event.getString("routingKey") + ":" + event.getInt("batchSize"))
+                .containsExactly(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY + ":2");
+    }
+
+    @Test
+    public void environmentAndSystemPropertiesAreNotRecorded() throws IOException {
+        endpoint.start();
+
+        assertThat(dumpedEvents("jdk.InitialEnvironmentVariable")).isEmpty();
+        assertThat(dumpedEvents("jdk.InitialSystemProperty")).isEmpty();
+        assertThat(dumpedEvents("jdk.JVMInformation")).isEmpty();
+    }
+
+    @Test
+    public void dumpIsDeletedWhenRecordingStops() throws IOException {
+        endpoint.start();
+
+        Resource dump = endpoint.dump().getBody();
+
+        assertThat(dump.exists()).isTrue();
+
+        endpoint.stop();
+
+        assertThat(dump.exists()).isFalse();
+    }
+}
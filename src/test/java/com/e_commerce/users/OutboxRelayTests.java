@@ -0,0 +1,91 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.events.EventSender;
+import com.e_commerce.users.events.OutboxEvent;
+import com.e_commerce.users.events.OutboxEventRepository;
+import com.e_commerce.users.events.OutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTests {
+    private static final Duration CONFIRM_TIMEOUT = Duration.ofSeconds(1);
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private EventSender eventSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay relay;
+
+    private static OutboxEvent outboxEvent(long id) {
+        OutboxEvent event = new OutboxEvent(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY, "application/json",
+                null, new byte[]{'{', '}'});
+        event.setId(id);
+
+        return event;
+    }
+
+    @BeforeEach
+    public void createOutboxRelay() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        relay = new OutboxRelay(
+                repository, eventSender, transactionManager, 2, CONFIRM_TIMEOUT);
+    }
+
+    @Test
+    public void nothingIsPublishedWhenOutboxIsEmpty() {
+        when(repository.findPendingEvents(PageRequest.ofSize(2))).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(eventSender, times(0)).sendOutboxEvents(anyList(), any());
+        verify(repository, times(0)).deleteAllInBatch(anyIterable());
+    }
+
+    @Test
+    public void confirmedEventsAreDeletedUntilOutboxIsDrained() {
+        List<OutboxEvent> firstBatch = List.of(outboxEvent(1), outboxEvent(2));
+        List<OutboxEvent> secondBatch = List.of(outboxEvent(3));
+
+        when(repository.findPendingEvents(PageRequest.ofSize(2))).thenReturn(firstBatch, secondBatch);
+        when(eventSender.sendOutboxEvents(firstBatch, CONFIRM_TIMEOUT)).thenReturn(firstBatch);
+        when(eventSender.sendOutboxEvents(secondBatch, CONFIRM_TIMEOUT)).thenReturn(secondBatch);
+
+        relay.relay();
+
+        verify(repository, times(1)).deleteAllInBatch(firstBatch);
+        verify(repository, times(1)).deleteAllInBatch(secondBatch);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void relayStopsWhenEventsAreNotConfirmed() {
+        List<OutboxEvent> batch = List.of(outboxEvent(1), outboxEvent(2));
+
+        when(repository.findPendingEvents(PageRequest.ofSize(2))).thenReturn(batch);
+        when(eventSender.sendOutboxEvents(batch, CONFIRM_TIMEOUT)).thenReturn(List.of(batch.get(0)));
+
+        relay.relay();
+
+        verify(repository, times(1)).findPendingEvents(PageRequest.ofSize(2));
+        verify(repository, times(1)).deleteAllInBatch(List.of(batch.get(0)));
+    }
+}
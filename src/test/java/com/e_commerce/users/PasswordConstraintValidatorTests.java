@@ -3,6 +3,7 @@ package com.e_commerce.users;
 import com.e_commerce.users.constraints.PasswordConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -10,9 +11,13 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.jupiter.params.provider.ArgumentsSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.passay.*;
 
+import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -99,4 +104,43 @@ public class PasswordConstraintValidatorTests {
         verify(specificConstraintViolationBuilder, times(1))
                 .addConstraintViolation();
     }
+
+    @Test
+    public void randomPasswordsMatchPassayValidator() {
+        PasswordValidator reference = new PasswordValidator(
+                new LengthRule(8, 16),
+                new CharacterRule(EnglishCharacterData.UpperCase, 1),
+                new CharacterRule(EnglishCharacterData.LowerCase, 1),
+                new CharacterRule(EnglishCharacterData.Digit, 1),
+                new CharacterRule(EnglishCharacterData.Special, 1),
+                new CharacterOccurrencesRule(3),
+                new IllegalSequenceRule(EnglishSequenceData.Alphabetical, 3, false),
+                new IllegalSequenceRule(EnglishSequenceData.Numerical, 3, false),
+                new IllegalSequenceRule(EnglishSequenceData.USQwerty, 3, false),
+                new WhitespaceRule()
+        );
+        String alphabet = "abcxyzABCXYZ0189!@#$%^&*()_+-=[]{};:'\",./<>?`~\\| \t\u00a1\u00e9";
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            char[] chars = new char[6 + random.nextInt(13)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = j > 0 && random.nextInt(5) == 0
+                        ? (char) (chars[j - 1] + (random.nextBoolean() ? 1 : -1))
+                        : alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String password = new String(chars);
+            RuleResult expected = reference.validate(new PasswordData(password));
+
+            clearInvocations(context);
+
+            assertThat(validator.isValid(password, context)).isEqualTo(expected.isValid());
+
+            ArgumentCaptor<String> violations = ArgumentCaptor.forClass(String.class);
+            verify(context, atLeast(0)).buildConstraintViolationWithTemplate(violations.capture());
+
+            assertThat(violations.getAllValues())
+                    .isEqualTo(expected.isValid() ? List.of() : reference.getMessages(expected));
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.exceptions.UsernameNotFoundException;
+import com.e_commerce.users.reads.ReadCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReadCoalescerTests {
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    private ReadCoalescer coalescer;
+
+    @BeforeEach
+    public void createCoalescer() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(8);
+        coalescer = new ReadCoalescer(meterRegistry);
+    }
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    private double coalesced(String read) {
+        return meterRegistry.find("users.reads.coalesced")
+                .tag("read", read)
+                .counters()
+                .stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    @Test
+    public void concurrentReadsOfSameKeyAreCoalesced() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+
+        List<CompletableFuture<String>> results = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> coalescer.execute("info", "username", () -> {
+                    reads.incrementAndGet();
+
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+
+                    return "a merchant";
+                }), executor))
+                .toList();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> coalesced("info") == 7);
+
+        release.countDown();
+
+        results.forEach(result -> assertThat(result.join()).isEqualTo("a merchant"));
+        assertThat(reads).hasValue(1);
+        assertThat(coalescer.getInFlightReads()).isZero();
+    }
+
+    @Test
+    public void readsOfDifferentKeysAreNotCoalesced() {
+        assertThat(coalescer.execute("info", "username", () -> "a merchant")).isEqualTo("a merchant");
+        assertThat(coalescer.execute("info", "other_username", () -> "a buyer")).isEqualTo("a buyer");
+        assertThat(coalescer.execute("email", "username", () -> "username@email.com"))
+                .isEqualTo("username@email.com");
+
+        assertThat(coalesced("info")).isZero();
+        assertThat(coalesced("email")).isZero();
+    }
+
+    @Test
+    public void sequentialReadsAreNotCoalesced() {
+        AtomicInteger reads = new AtomicInteger();
+
+        coalescer.execute("info", "username", reads::incrementAndGet);
+        coalescer.execute("info", "username", reads::incrementAndGet);
+
+        assertThat(reads).hasValue(2);
+        assertThat(coalescer.getInFlightReads()).isZero();
+    }
+
+    @Test
+    public void failedReadIsSharedWithCoalescedReads() {
+        CompletableFuture<String> read = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = coalescer.executeAsync("info", "username", () -> read);
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("info", "username", () -> "a merchant"), executor);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> coalesced("info") == 1);
+
+        read.completeExceptionally(new UsernameNotFoundException("username"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, follower::get);
+        assertInstanceOf(UsernameNotFoundException.class, e.getCause());
+        assertThat(leader).isCompletedExceptionally();
+        assertThat(coalescer.getInFlightReads()).isZero();
+    }
+
+    @Test
+    public void failedReadIsNotRetainedForLaterReads() {
+        assertThrows(UsernameNotFoundException.class, () -> coalescer.execute("info", "username", () -> {
+            throw new UsernameNotFoundException("username");
+        }));
+
+        assertThat(coalescer.execute("info", "username", () -> "a merchant")).isEqualTo("a merchant");
+    }
+
+    @Test
+    public void asyncReadsOfSameKeyAreCoalesced() {
+        CompletableFuture<String> read = new CompletableFuture<>();
+        AtomicInteger reads = new AtomicInteger();
+
+        CompletableFuture<String> first = coalescer.executeAsync("info", "username", () -> {
+            reads.incrementAndGet();
+
+            return read;
+        });
+        CompletableFuture<String> second = coalescer.executeAsync("info", "username", () -> {
+            reads.incrementAndGet();
+
+            return CompletableFuture.completedFuture("a buyer");
+        });
+
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+
+        second.cancel(true);
+        read.complete("a merchant");
+
+        assertThat(first).isCompletedWithValue("a merchant");
+        assertThat(reads).hasValue(1);
+        assertThat(coalesced("info")).isEqualTo(1);
+        assertThat(coalescer.getInFlightReads()).isZero();
+    }
+}
@@ -1,8 +1,11 @@
 package com.e_commerce.users;
 
 import com.e_commerce.users.exceptions.DuplicatedUsernameException;
+import com.e_commerce.users.exceptions.PasswordHashingUnavailableException;
 import com.e_commerce.users.exceptions.UserNotFoundException;
+import com.e_commerce.users.exceptions.UserPreconditionFailedException;
 import com.e_commerce.users.exceptions.UsernameNotFoundException;
+import com.e_commerce.users.exports.UserExporter;
 import com.e_commerce.users.model.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -16,11 +19,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -251,6 +263,9 @@ public class UserControllerTests {
     @MockitoBean
     private UserService service;
 
+    @MockitoBean
+    private UserExporter exporter;
+
     @ParameterizedTest
     @ArgumentsSource(ValidUserTestParameters.class)
     public void registersValidUser(User user) throws Exception {
@@ -264,6 +279,73 @@ public class UserControllerTests {
         verify(service, times(1)).registerUser(user);
     }
 
+    private void exportWrites(String content) throws Exception {
+        when(exporter.export(any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(content.getBytes(StandardCharsets.UTF_8));
+
+            return 1L;
+        });
+    }
+
+    @Test
+    public void exportsUsers() throws Exception {
+        String line = "{\"username\":\"username\",\"email\":\"username@email.com\",\"description\":\"a merchant\"}\n";
+
+        exportWrites(line);
+
+        assertThat(mockMvc.get().uri("/users/export"))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .doesNotContainHeader(HttpHeaders.CONTENT_ENCODING)
+                .hasBodyTextEqualTo(line);
+    }
+
+    @Test
+    public void exportsGzippedUsers() throws Exception {
+        String line = "{\"username\":\"username\",\"email\":\"username@email.com\",\"description\":\"a merchant\"}\n";
+
+        exportWrites(line);
+
+        MvcTestResult result = mockMvc.get().uri("/users/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .exchange();
+
+        assertThat(result)
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .hasHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(line);
+        }
+    }
+
+    @Test
+    public void exportIsNotGzippedWhenGzipIsRefused() throws Exception {
+        String line = "{\"username\":\"username\",\"email\":\"username@email.com\",\"description\":\"a merchant\"}\n";
+
+        exportWrites(line);
+
+        assertThat(mockMvc.get().uri("/users/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, x-gzip, *;q=1"))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .doesNotContainHeader(HttpHeaders.CONTENT_ENCODING)
+                .hasBodyTextEqualTo(line);
+    }
+
+    @Test
+    public void exportIsGzippedForWildcardEncoding() throws Exception {
+        exportWrites("{}\n");
+
+        assertThat(mockMvc.get().uri("/users/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity;q=0.5, *;q=0.8"))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .hasHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
     @Test
     public void failsToRegisterDuplicatedUser() throws Exception {
         User user = new User("_username19.", "username@email.com", "a merchant", "Password1@");
@@ -284,6 +366,27 @@ public class UserControllerTests {
                 path -> assertThat(path).isEqualTo("Username '_username19.' is already being used."));
     }
 
+    @Test
+    public void failsToRegisterUserWhenHashingIsSaturated() throws Exception {
+        User user = new User("username", "username@email.com", "a merchant", "Password1@");
+
+        doThrow(new PasswordHashingUnavailableException()).when(service).registerUser(user);
+
+        assertThat(mockMvc.post().uri("/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(user)))
+                .hasStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                .hasHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                .hasHeader(HttpHeaders.RETRY_AFTER, "1")
+                .bodyJson()
+                .hasPathSatisfying("$.status",
+                        path -> assertThat(path).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value()))
+                .hasPathSatisfying("$.title",
+                        path -> assertThat(path).isEqualTo("Service Unavailable"))
+                .hasPathSatisfying("$.detail",
+                        path -> assertThat(path).isEqualTo("Password hashing is at full capacity, try again later."));
+    }
+
     @ParameterizedTest
     @ArgumentsSource(InvalidUserTestParameters.class)
     public void failsToRegisterInvalidUser(User user, List<String> reasons) throws Exception {
@@ -307,11 +410,222 @@ public class UserControllerTests {
         verify(service, times(0)).registerUser(user);
     }
 
+    @Test
+    public void registersUsersInBulk() throws Exception {
+        List<User> users = List.of(
+                new User("username", "username@email.com", "a merchant", "Password1@"),
+                new User("user@name", "username@email.com", "a merchant", "Password1@"));
+        List<RegistrationResult> results = List.of(
+                RegistrationResult.registered("username"),
+                RegistrationResult.invalid("user@name",
+                        List.of("Username can only contain lower case letters, numbers, dots and underscores.")));
+
+        when(service.registerUsers(users)).thenReturn(results);
+
+        assertThat(mockMvc.post().uri("/users/register/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(users)))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyJson()
+                .hasPathSatisfying("$[0].status",
+                        path -> assertThat(path).isEqualTo("REGISTERED"))
+                .hasPathSatisfying("$[1].status",
+                        path -> assertThat(path).isEqualTo("INVALID"));
+
+        verify(service, times(1)).registerUsers(users);
+    }
+
+    @Test
+    public void failsToRegisterTooManyUsersInBulk() throws Exception {
+        List<User> users = Collections.nCopies(1001,
+                new User("username", "username@email.com", "a merchant", "Password1@"));
+
+        assertThat(mockMvc.post().uri("/users/register/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(users)))
+                .hasStatus(HttpStatus.BAD_REQUEST)
+                .hasHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                .bodyJson()
+                .hasPathSatisfying("$.title",
+                        path -> assertThat(path).isEqualTo("Invalid Content"))
+                .hasPathSatisfying("$.reasons",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .hasSize(1)
+                                .contains("Up to 1000 users can be registered at once."));
+
+        verify(service, times(0)).registerUsers(anyList());
+    }
+
+    @Test
+    public void checksUsernameAvailability() {
+        when(service.checkUsernameAvailability("username", 2)).thenReturn(
+                new UsernameAvailability("username", false, List.of("username1", "username_42")));
+
+        assertThat(mockMvc.get().uri("/users/availability/username?alternatives=2"))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyJson()
+                .hasPathSatisfying("$.available", path -> assertThat(path).isEqualTo(false))
+                .hasPathSatisfying("$.alternatives",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("username1", "username_42"));
+    }
+
+    @Test
+    public void failsToCheckAvailabilityOfInvalidUsername() {
+        assertThat(mockMvc.get().uri("/users/availability/user..name"))
+                .hasStatus(HttpStatus.BAD_REQUEST)
+                .hasHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                .bodyJson()
+                .hasPathSatisfying("$.reasons",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("Username cannot contain repeated dots."));
+
+        verify(service, times(0)).checkUsernameAvailability(any(), anyInt());
+    }
+
+    @Test
+    public void suggestsUsernames() {
+        when(service.suggestUsernames("user", 10)).thenReturn(List.of("username", "username2"));
+
+        assertThat(mockMvc.get().uri("/users/suggestions?prefix=user"))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyJson()
+                .hasPathSatisfying("$",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("username", "username2"));
+    }
+
+    @Test
+    public void failsToSuggestUsernamesWithEmptyPrefix() {
+        assertThat(mockMvc.get().uri("/users/suggestions?prefix="))
+                .hasStatus(HttpStatus.BAD_REQUEST)
+                .bodyJson()
+                .hasPathSatisfying("$.reasons",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("Prefix must contain between 1 and 64 characters."));
+
+        verify(service, times(0)).suggestUsernames(any(), anyInt());
+    }
+
+    @Test
+    public void listsUsers() {
+        when(service.listUsers("user", "a_username", 2)).thenReturn(new UserPage(
+                List.of(new UserSummary("username", "username@email.com", "a merchant")), "username"));
+
+        assertThat(mockMvc.get().uri("/users?prefix=user&after=a_username&limit=2"))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyJson()
+                .hasPathSatisfying("$.users[0].username", path -> assertThat(path).isEqualTo("username"))
+                .hasPathSatisfying("$.users[0].email", path -> assertThat(path).isEqualTo("username@email.com"))
+                .hasPathSatisfying("$.next", path -> assertThat(path).isEqualTo("username"));
+    }
+
+    @Test
+    public void listsUsersWithDefaultLimit() {
+        when(service.listUsers(null, null, 100)).thenReturn(new UserPage(List.of(), null));
+
+        assertThat(mockMvc.get().uri("/users"))
+                .hasStatusOk();
+
+        verify(service, times(1)).listUsers(null, null, 100);
+    }
+
+    @Test
+    public void failsToListUsersWithInvalidLimit() {
+        assertThat(mockMvc.get().uri("/users?limit=1001"))
+                .hasStatus(HttpStatus.BAD_REQUEST)
+                .hasHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                .bodyJson()
+                .hasPathSatisfying("$.reasons",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("Limit must be between 1 and 1000."));
+
+        verify(service, times(0)).listUsers(any(), any(), anyInt());
+    }
+
+    @Test
+    public void retrievesUsersInfoInBatch() throws Exception {
+        List<String> usernames = List.of("username", "other_username");
+
+        when(service.retrieveUsersInfo(usernames)).thenReturn(new BatchGetResult<>(
+                Map.of("username", new UserInfo("a merchant")), List.of("other_username")));
+
+        assertThat(mockMvc.post().uri("/users/info:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(new UsernameBatch(usernames))))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyJson()
+                .hasPathSatisfying("$.found.username.description",
+                        path -> assertThat(path).isEqualTo("a merchant"))
+                .hasPathSatisfying("$.notFound",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("other_username"));
+    }
+
+    @Test
+    public void retrievesUsersEmailInBatch() throws Exception {
+        List<String> usernames = List.of("username");
+
+        when(service.retrieveUsersEmail(usernames)).thenReturn(new BatchGetResult<>(
+                Map.of("username", new UserEmail("username@email.com")), List.of()));
+
+        assertThat(mockMvc.post().uri("/users/email:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(new UsernameBatch(usernames))))
+                .hasStatusOk()
+                .bodyJson()
+                .hasPathSatisfying("$.found.username.email",
+                        path -> assertThat(path).isEqualTo("username@email.com"));
+    }
+
+    @Test
+    public void failsToRetrieveTooManyUsersInBatch() throws Exception {
+        List<String> usernames = Collections.nCopies(1001, "username");
+
+        assertThat(mockMvc.post().uri("/users/info:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(new UsernameBatch(usernames))))
+                .hasStatus(HttpStatus.BAD_REQUEST)
+                .hasHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                .bodyJson()
+                .hasPathSatisfying("$.reasons",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("Up to 1000 usernames can be retrieved at once."));
+
+        verify(service, times(0)).retrieveUsersInfo(anyList());
+    }
+
+    @Test
+    public void failsToRetrieveEmptyBatch() throws Exception {
+        assertThat(mockMvc.post().uri("/users/email:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(new UsernameBatch(List.of()))))
+                .hasStatus(HttpStatus.BAD_REQUEST)
+                .bodyJson()
+                .hasPathSatisfying("$.reasons",
+                        path -> assertThat(path)
+                                .isInstanceOf(List.class).asArray()
+                                .containsExactly("Usernames must be provided."));
+    }
+
     @Test
     public void retrievesUserInfo() {
         UserInfo userInfo = new UserInfo("a merchant");
 
-        when(service.retrieveUserInfo("username")).thenReturn(userInfo);
+        when(service.retrieveUserInfoAsync("username")).thenReturn(CompletableFuture.completedFuture(userInfo));
 
         assertThat(mockMvc.get().uri("/users/username/info"))
                 .hasStatusOk()
@@ -320,12 +634,40 @@ public class UserControllerTests {
                 .convertTo(UserInfo.class)
                 .isEqualTo(userInfo);
 
-        verify(service, times(1)).retrieveUserInfo("username");
+        verify(service, times(1)).retrieveUserInfoAsync("username");
+    }
+
+    @Test
+    public void retrievesUserInfoWithETag() {
+        when(service.retrieveUserInfoAsync("username"))
+                .thenReturn(CompletableFuture.completedFuture(new UserInfo("a merchant", 3L)));
+
+        assertThat(mockMvc.get().uri("/users/username/info"))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.ETAG, "\"3\"")
+                .bodyJson()
+                .doesNotHavePath("$.version")
+                .hasPathSatisfying("$.description",
+                        path -> assertThat(path).isEqualTo("a merchant"));
+    }
+
+    @Test
+    public void userInfoIsNotModified() {
+        when(service.retrieveUserInfoAsync("username"))
+                .thenReturn(CompletableFuture.completedFuture(new UserInfo("a merchant", 3L)));
+
+        assertThat(mockMvc.get().uri("/users/username/info")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .hasStatus(HttpStatus.NOT_MODIFIED)
+                .hasHeader(HttpHeaders.ETAG, "\"3\"")
+                .body()
+                .isEmpty();
     }
 
     @Test
     public void failsToRetrieveInfoOfUnknownUser() {
-        when(service.retrieveUserInfo("username")).thenThrow(new UsernameNotFoundException("username"));
+        when(service.retrieveUserInfoAsync("username"))
+                .thenReturn(CompletableFuture.failedFuture(new UsernameNotFoundException("username")));
 
         assertThat(mockMvc.get().uri("/users/username/info"))
                 .hasStatus(HttpStatus.NOT_FOUND)
@@ -359,14 +701,14 @@ public class UserControllerTests {
                                 .hasSize(1)
                                 .contains(reason));
 
-        verify(service, times(0)).retrieveUserInfo(username);
+        verify(service, times(0)).retrieveUserInfoAsync(username);
     }
 
     @Test
     public void retrievesUserEmail() {
         UserEmail email = new UserEmail("username@email.com");
 
-        when(service.retrieveUserEmail("username")).thenReturn(email);
+        when(service.retrieveUserEmailAsync("username")).thenReturn(CompletableFuture.completedFuture(email));
 
         assertThat(mockMvc.get().uri("/users/username/email"))
                 .hasStatusOk()
@@ -375,12 +717,30 @@ public class UserControllerTests {
                 .convertTo(UserEmail.class)
                 .isEqualTo(email);
 
-        verify(service, times(1)).retrieveUserEmail("username");
+        verify(service, times(1)).retrieveUserEmailAsync("username");
+    }
+
+    @Test
+    public void userEmailIsNotModified() {
+        when(service.retrieveUserEmailAsync("username"))
+                .thenReturn(CompletableFuture.completedFuture(new UserEmail("username@email.com", 3L)));
+
+        assertThat(mockMvc.get().uri("/users/username/email")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .hasStatus(HttpStatus.NOT_MODIFIED)
+                .body()
+                .isEmpty();
+
+        assertThat(mockMvc.get().uri("/users/username/email")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .hasStatusOk()
+                .hasHeader(HttpHeaders.ETAG, "\"3\"");
     }
 
     @Test
     public void failsToRetrieveEmailOfUnknownUser() {
-        when(service.retrieveUserEmail("username")).thenThrow(new UsernameNotFoundException("username"));
+        when(service.retrieveUserEmailAsync("username"))
+                .thenReturn(CompletableFuture.failedFuture(new UsernameNotFoundException("username")));
 
         assertThat(mockMvc.get().uri("/users/username/email"))
                 .hasStatus(HttpStatus.NOT_FOUND)
@@ -413,7 +773,7 @@ public class UserControllerTests {
                                 .hasSize(1)
                                 .contains(reason));
 
-        verify(service, times(0)).retrieveUserEmail(username);
+        verify(service, times(0)).retrieveUserEmailAsync(username);
     }
 
     @Test
@@ -428,7 +788,7 @@ public class UserControllerTests {
                 .body()
                 .isEmpty();
 
-        verify(service, times(1)).updateUserPassword(change);
+        verify(service, times(1)).updateUserPassword(change, null);
     }
 
     @Test
@@ -436,7 +796,7 @@ public class UserControllerTests {
         PasswordChange change = new PasswordChange(
                 new UserCredentials("username", "Password1@"), "new_Password1@");
 
-        doThrow(new UserNotFoundException()).when(service).updateUserPassword(change);
+        doThrow(new UserNotFoundException()).when(service).updateUserPassword(change, null);
 
         assertThat(mockMvc.put().uri("/users/update/password")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -486,7 +846,7 @@ public class UserControllerTests {
                 .body()
                 .isEmpty();
 
-        verify(service, times(1)).updateUserEmail(change);
+        verify(service, times(1)).updateUserEmail(change, null);
     }
 
     @Test
@@ -494,7 +854,7 @@ public class UserControllerTests {
         EmailChange change = new EmailChange(
                 new UserCredentials("username", "Password1@"), "new_email@email.com");
 
-        doThrow(new UserNotFoundException()).when(service).updateUserEmail(change);
+        doThrow(new UserNotFoundException()).when(service).updateUserEmail(change, null);
 
         assertThat(mockMvc.put().uri("/users/update/email")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -544,7 +904,27 @@ public class UserControllerTests {
                 .body()
                 .isEmpty();
 
-        verify(service, times(1)).updateUserInfo(change);
+        verify(service, times(1)).updateUserInfo(change, null);
+    }
+
+    @Test
+    public void failsToChangeInfoConcurrentlyUpdated() throws Exception {
+        UserInfoChange change = new UserInfoChange(
+                "username", new UserInfo("new description"));
+
+        doThrow(new ObjectOptimisticLockingFailureException(User.class, 1L))
+                .when(service).updateUserInfo(change, null);
+
+        assertThat(mockMvc.put().uri("/users/update/info")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(change)))
+                .hasStatus(HttpStatus.CONFLICT)
+                .hasHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                .bodyJson()
+                .hasPathSatisfying("$.title",
+                        path -> assertThat(path).isEqualTo("Concurrent Update"))
+                .hasPathSatisfying("$.detail",
+                        path -> assertThat(path).isEqualTo("User was concurrently updated, try again."));
     }
 
     @Test
@@ -552,7 +932,7 @@ public class UserControllerTests {
         UserInfoChange change = new UserInfoChange(
                 "username", new UserInfo("new description"));
 
-        doThrow(new UsernameNotFoundException("username")).when(service).updateUserInfo(change);
+        doThrow(new UsernameNotFoundException("username")).when(service).updateUserInfo(change, null);
 
         assertThat(mockMvc.put().uri("/users/update/info")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,94 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.exports.UserExporter;
+import com.e_commerce.users.model.UserExportEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExporterTests {
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserExporter exporter;
+
+    @BeforeEach
+    public void createExporter() {
+        exporter = new UserExporter(repository, transactionManager, new ObjectMapper(), 2);
+    }
+
+    private static UserExportEntry entry(long id) {
+        return new UserExportEntry(id, "username" + id, "username" + id + "@email.com", "a merchant");
+    }
+
+    @Test
+    public void usersAreExportedInKeysetPages() throws Exception {
+        when(repository.streamUserExportEntriesAfter(eq(0L), any()))
+                .thenReturn(Stream.of(entry(1), entry(3)));
+        when(repository.streamUserExportEntriesAfter(eq(3L), any()))
+                .thenReturn(Stream.of(entry(7)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exporter.export(out)).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"username\":\"username1\",\"email\":\"username1@email.com\",\"description\":\"a merchant\"}\n" +
+                "{\"username\":\"username3\",\"email\":\"username3@email.com\",\"description\":\"a merchant\"}\n" +
+                "{\"username\":\"username7\",\"email\":\"username7@email.com\",\"description\":\"a merchant\"}\n");
+
+        verify(repository, times(1)).streamUserExportEntriesAfter(0L, PageRequest.ofSize(2));
+        verify(repository, times(1)).streamUserExportEntriesAfter(3L, PageRequest.ofSize(2));
+        verify(transactionManager, times(2)).getTransaction(any());
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    public void fullLastPageIsFollowedByEmptyPage() throws Exception {
+        when(repository.streamUserExportEntriesAfter(eq(0L), any()))
+                .thenReturn(Stream.of(entry(1), entry(2)));
+        when(repository.streamUserExportEntriesAfter(eq(2L), any()))
+                .thenReturn(Stream.empty());
+
+        assertThat(exporter.export(new ByteArrayOutputStream())).isEqualTo(2);
+
+        verify(repository, times(2)).streamUserExportEntriesAfter(anyLong(), any());
+    }
+
+    @Test
+    public void emptyTableExportsNothing() throws Exception {
+        when(repository.streamUserExportEntriesAfter(eq(0L), any())).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exporter.export(out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    public void passwordIsNeverExported() throws Exception {
+        when(repository.streamUserExportEntriesAfter(eq(0L), any())).thenReturn(Stream.of(entry(1)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).doesNotContain("password", "\"id\"");
+    }
+}
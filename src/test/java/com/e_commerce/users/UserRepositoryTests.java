@@ -1,7 +1,8 @@
 package com.e_commerce.users;
 
-import com.e_commerce.users.model.User;
-import com.e_commerce.users.model.UserInfo;
+import com.e_commerce.users.model.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +14,16 @@ import org.springframework.boot.testcontainers.service.connection.ServiceConnect
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -30,6 +37,12 @@ public class UserRepositoryTests {
     @Autowired
     private UserRepository repository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
     private Long insertedUserId;
 
     @BeforeEach
@@ -38,34 +51,134 @@ public class UserRepositoryTests {
         insertedUserId = repository.save(user).getId();
     }
 
+    @Test
+    public void existingUsernamesAreFound() {
+        assertThat(repository.findExistingUsernames(List.of("username", "other_username")))
+                .containsExactly("username");
+    }
+
     @Test
     public void userInfoFoundByUsername() {
         assertThat(repository.findOptionalUserInfoByUsername("username"))
-                .hasValue(new UserInfo("a merchant"));
+                .hasValue(new UserInfo("a merchant", 0L));
+    }
+
+    @Test
+    public void userInfoEntriesFoundByUsernames() {
+        assertThat(repository.findUserInfoEntriesByUsernames(List.of("username", "other_username")))
+                .containsExactly(new UserInfoEntry("username", "a merchant"));
+    }
+
+    @Test
+    public void userEmailEntriesFoundByUsernames() {
+        assertThat(repository.findUserEmailEntriesByUsernames(List.of("username", "other_username")))
+                .containsExactly(new UserEmailEntry("username", "username@email.com"));
+    }
+
+    @Test
+    public void userSummariesAreListedAfterUsername() {
+        repository.save(new User("other_username", "other_username@email.com", "a buyer", "Password1@"));
+        repository.save(new User("username2", "username2@email.com", "a buyer", "Password1@"));
+
+        assertThat(repository.findUserSummariesAfter("", PageRequest.ofSize(2))).containsExactly(
+                new UserSummary("other_username", "other_username@email.com", "a buyer"),
+                new UserSummary("username", "username@email.com", "a merchant"));
+        assertThat(repository.findUserSummariesAfter("username", PageRequest.ofSize(2))).containsExactly(
+                new UserSummary("username2", "username2@email.com", "a buyer"));
+    }
+
+    @Test
+    public void userSummariesAreListedByPrefix() {
+        repository.save(new User("user_name", "user_name@email.com", "a buyer", "Password1@"));
+        repository.save(new User("user_name2", "user_name2@email.com", "a buyer", "Password1@"));
+
+        assertThat(repository.findUserSummariesLikeAfter("user!_%", "", PageRequest.ofSize(10)))
+                .extracting(UserSummary::username)
+                .containsExactly("user_name", "user_name2");
+        assertThat(repository.findUserSummariesLikeAfter("user!_%", "user_name", PageRequest.ofSize(10)))
+                .extracting(UserSummary::username)
+                .containsExactly("user_name2");
+    }
+
+    @Test
+    public void exportEntriesAreStreamedAfterId() {
+        try (Stream<UserExportEntry> entries = repository.streamUserExportEntriesAfter(0L, PageRequest.ofSize(10))) {
+            assertThat(entries).containsExactly(
+                    new UserExportEntry(insertedUserId, "username", "username@email.com", "a merchant"));
+        }
+
+        try (Stream<UserExportEntry> entries = repository.streamUserExportEntriesAfter(
+                insertedUserId, PageRequest.ofSize(10))) {
+            assertThat(entries).isEmpty();
+        }
     }
 
     @Test
     public void userEmailFoundByUsername() {
         assertThat(repository.findOptionalUserEmailByUsername("username"))
-                .hasValue("username@email.com");
+                .hasValue(new UserEmail("username@email.com", 0L));
+    }
+
+    @Test
+    public void storedCredentialsFoundByUsername() {
+        assertThat(repository.findOptionalStoredCredentialsByUsername("username"))
+                .hasValue(new StoredCredentials(insertedUserId, "Password1@", 0L));
+    }
+
+    @Test
+    public void storedCredentialsAreReadPastTheSecondLevelCache() {
+        entityManager.flush();
+        entityManager.clear();
+        repository.findOptionalUserByUsername("username");
+        entityManager.clear();
+
+        assertThat(entityManager.getEntityManagerFactory().getCache().contains(User.class, insertedUserId)).isTrue();
+
+        new JdbcTemplate(dataSource).update("update user set password = ?, version = version + 1 where id = ?",
+                "changed_Password1@", insertedUserId);
+
+        assertThat(repository.findOptionalStoredCredentialsByUsername("username"))
+                .hasValue(new StoredCredentials(insertedUserId, "changed_Password1@", 1L));
+    }
+
+    @Test
+    public void userFoundByNaturalId() {
+        assertThat(repository.findOptionalUserByUsername("username"))
+                .hasValueSatisfying(user -> {
+                    assertThat(user.getId()).isEqualTo(insertedUserId);
+                    assertThat(user.getEmail()).isEqualTo("username@email.com");
+                });
+        assertThat(repository.findOptionalUserByUsername("other_username")).isEmpty();
     }
 
     @Test
     public void passwordIsUpdated() {
-        assertThat(repository.updateUserPassword("username", "Password1@", "new_Password1@"))
+        assertThat(repository.updateUserPassword(insertedUserId, 0L, "new_Password1@"))
                 .isEqualTo(1);
 
-        User user = repository.getReferenceById(insertedUserId);
-        assertThat(user.getPassword()).isEqualTo("new_Password1@");
+        assertThat(repository.findOptionalStoredCredentialsByUsername("username"))
+                .hasValue(new StoredCredentials(insertedUserId, "new_Password1@", 1L));
+    }
+
+    @Test
+    public void passwordIsNotUpdatedWithStaleVersion() {
+        assertThat(repository.updateUserPassword(insertedUserId, 1L, "new_Password1@"))
+                .isEqualTo(0);
     }
 
     @Test
     public void emailIsUpdated() {
-        assertThat(repository.updateUserEmail("username", "Password1@", "new_username@email.com"))
+        assertThat(repository.updateUserEmail(insertedUserId, 0L, "new_username@email.com", "Password1@"))
                 .isEqualTo(1);
 
-        User user = repository.getReferenceById(insertedUserId);
-        assertThat(user.getEmail()).isEqualTo("new_username@email.com");
+        assertThat(repository.findOptionalUserEmailByUsername("username"))
+                .hasValue(new UserEmail("new_username@email.com", 1L));
+    }
+
+    @Test
+    public void emailIsNotUpdatedWithStaleVersion() {
+        assertThat(repository.updateUserEmail(insertedUserId, 1L, "new_username@email.com", "Password1@"))
+                .isEqualTo(0);
     }
 
     @Test
@@ -74,14 +187,49 @@ public class UserRepositoryTests {
 
         assertThat(repository.updateUserInfo("username", userInfo)).isEqualTo(1);
 
-        User user = repository.getReferenceById(insertedUserId);
-        assertThat(user.getDescription()).isEqualTo(userInfo.description());
+        assertThat(repository.findOptionalUserInfoByUsername("username"))
+                .hasValue(new UserInfo("blablabla", 1L));
+    }
+
+    @Test
+    public void userInfoIsUpdatedWithVersion() {
+        UserInfo userInfo = new UserInfo("blablabla");
+
+        assertThat(repository.updateUserInfo("username", 0L, userInfo)).isEqualTo(1);
+
+        assertThat(repository.findOptionalUserInfoByUsername("username"))
+                .hasValue(new UserInfo("blablabla", 1L));
+    }
+
+    @Test
+    public void userInfoIsNotUpdatedWithStaleVersion() {
+        assertThat(repository.updateUserInfo("username", 1L, new UserInfo("blablabla")))
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void userInfoIsUpdatedWithoutVersionAfterConcurrentUpdate() {
+        assertThat(repository.updateUserPassword(insertedUserId, 0L, "new_Password1@")).isEqualTo(1);
+
+        assertThat(repository.updateUserInfo("username", new UserInfo("blablabla"))).isEqualTo(1);
+
+        assertThat(repository.findOptionalUserInfoByUsername("username"))
+                .hasValue(new UserInfo("blablabla", 2L));
+    }
+
+    @Test
+    public void userInfoOfUnknownUserIsNotUpdated() {
+        assertThat(repository.updateUserInfo("other_username", new UserInfo("blablabla")))
+                .isEqualTo(0);
     }
 
     @Test
     public void usernameMustBeUnique() {
         repository.save(new User("username", "username@email.com", "a merchant", "Password1@"));
-        assertThrows(DataIntegrityViolationException.class, repository::flush);
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class, repository::flush);
+
+        assertThat(e.getCause()).isInstanceOfSatisfying(ConstraintViolationException.class,
+                violation -> assertThat(violation.getConstraintName()).endsWith(User.USERNAME_CONSTRAINT));
     }
 
     @Test
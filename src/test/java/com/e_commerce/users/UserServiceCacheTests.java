@@ -0,0 +1,233 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.configuration.CacheConfiguration;
+import com.e_commerce.users.events.EventOutbox;
+import com.e_commerce.users.exceptions.UsernameNotFoundException;
+import com.e_commerce.users.indexes.UsernameFilter;
+import com.e_commerce.users.indexes.UsernameIndex;
+import com.e_commerce.users.model.*;
+import com.e_commerce.users.reads.BoundedReadExecutor;
+import com.e_commerce.users.reads.ReadCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfiguration.class, UserService.class, ReadCoalescer.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "users.cache.specification=maximumSize=100,recordStats"
+})
+public class UserServiceCacheTests {
+    @MockitoBean
+    private UserRepository repository;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private EventOutbox eventOutbox;
+
+    @MockitoBean
+    private UsernameFilter usernameFilter;
+
+    @MockitoBean
+    private UsernameIndex usernameIndex;
+
+    @MockitoBean
+    private Validator validator;
+
+    @MockitoBean
+    private BoundedReadExecutor readExecutor;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserService service;
+
+    @BeforeEach
+    public void cachesAreCleared() {
+        cacheManager.getCacheNames()
+                .forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+
+    @Test
+    public void userInfoIsCached() {
+        UserInfo userInfo = new UserInfo("a merchant");
+
+        when(repository.findOptionalUserInfoByUsername("username")).thenReturn(Optional.of(userInfo));
+
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(userInfo);
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(userInfo);
+
+        verify(repository, times(1)).findOptionalUserInfoByUsername("username");
+    }
+
+    @Test
+    public void asyncUserInfoIsCached() {
+        UserInfo userInfo = new UserInfo("a merchant");
+
+        when(readExecutor.<UserInfo>supply(any())).thenReturn(CompletableFuture.completedFuture(userInfo));
+
+        assertThat(service.retrieveUserInfoAsync("username")).isCompletedWithValue(userInfo);
+        assertThat(service.retrieveUserInfoAsync("username")).isCompletedWithValue(userInfo);
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(userInfo);
+
+        verify(readExecutor, times(1)).supply(any());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void failedAsyncReadIsNotCached() {
+        UserInfo userInfo = new UserInfo("a merchant");
+
+        when(readExecutor.<UserInfo>supply(any())).thenReturn(
+                CompletableFuture.failedFuture(new UsernameNotFoundException("username")),
+                CompletableFuture.completedFuture(userInfo));
+
+        assertThat(service.retrieveUserInfoAsync("username")).isCompletedExceptionally();
+        assertThat(service.retrieveUserInfoAsync("username")).isCompletedWithValue(userInfo);
+
+        verify(readExecutor, times(2)).supply(any());
+    }
+
+    @Test
+    public void userEmailIsCached() {
+        when(repository.findOptionalUserEmailByUsername("username"))
+                .thenReturn(Optional.of(new UserEmail("username@email.com")));
+
+        assertThat(service.retrieveUserEmail("username")).isEqualTo(new UserEmail("username@email.com"));
+        assertThat(service.retrieveUserEmail("username")).isEqualTo(new UserEmail("username@email.com"));
+
+        verify(repository, times(1)).findOptionalUserEmailByUsername("username");
+    }
+
+    @Test
+    public void unknownUsernameIsNotCached() {
+        when(repository.findOptionalUserInfoByUsername("username")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> service.retrieveUserInfo("username"));
+        assertThrows(UsernameNotFoundException.class, () -> service.retrieveUserInfo("username"));
+
+        verify(repository, times(2)).findOptionalUserInfoByUsername("username");
+    }
+
+    @Test
+    public void userInfoUpdateEvictsCachedInfo() {
+        UserInfo userInfo = new UserInfo("a merchant");
+        UserInfo newUserInfo = new UserInfo("a buyer");
+
+        when(repository.findOptionalUserInfoByUsername("username"))
+                .thenReturn(Optional.of(userInfo), Optional.of(newUserInfo));
+        when(repository.updateUserInfo("username", newUserInfo)).thenReturn(1);
+
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(userInfo);
+
+        service.updateUserInfo(new UserInfoChange("username", newUserInfo), null);
+
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(newUserInfo);
+
+        verify(repository, times(2)).findOptionalUserInfoByUsername("username");
+    }
+
+    @Test
+    public void readInFlightDuringUpdateIsNotCached() throws Exception {
+        UserInfo userInfo = new UserInfo("a merchant");
+        UserInfo newUserInfo = new UserInfo("a buyer");
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch updateDone = new CountDownLatch(1);
+
+        when(repository.findOptionalUserInfoByUsername("username"))
+                .thenAnswer(invocation -> {
+                    readStarted.countDown();
+                    updateDone.await();
+                    return Optional.of(userInfo);
+                })
+                .thenReturn(Optional.of(newUserInfo));
+        when(repository.updateUserInfo("username", newUserInfo)).thenReturn(1);
+
+        CompletableFuture<UserInfo> staleRead = CompletableFuture.supplyAsync(() -> service.retrieveUserInfo("username"));
+
+        readStarted.await();
+        service.updateUserInfo(new UserInfoChange("username", newUserInfo), null);
+        updateDone.countDown();
+
+        assertThat(staleRead.get()).isEqualTo(userInfo);
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(newUserInfo);
+
+        verify(repository, times(2)).findOptionalUserInfoByUsername("username");
+    }
+
+    @Test
+    public void userInfoUpdateEvictsCachedEmailVersion() {
+        UserInfo newUserInfo = new UserInfo("a buyer");
+
+        when(repository.findOptionalUserEmailByUsername("username"))
+                .thenReturn(Optional.of(new UserEmail("username@email.com", 0L)),
+                        Optional.of(new UserEmail("username@email.com", 1L)));
+        when(repository.updateUserInfo("username", newUserInfo)).thenReturn(1);
+
+        assertThat(service.retrieveUserEmail("username").version()).isEqualTo(0L);
+
+        service.updateUserInfo(new UserInfoChange("username", newUserInfo), null);
+
+        assertThat(service.retrieveUserEmail("username").version()).isEqualTo(1L);
+
+        verify(repository, times(2)).findOptionalUserEmailByUsername("username");
+    }
+
+    @Test
+    public void userEmailUpdateEvictsCachedEmail() {
+        UserCredentials credentials = new UserCredentials("username", "password");
+
+        when(repository.findOptionalUserEmailByUsername("username"))
+                .thenReturn(Optional.of(new UserEmail("username@email.com")),
+                        Optional.of(new UserEmail("new_username@email.com")));
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 0L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(true);
+        when(repository.updateUserEmail(1L, 0L, "new_username@email.com", "gibberish"))
+                .thenReturn(1);
+
+        assertThat(service.retrieveUserEmail("username")).isEqualTo(new UserEmail("username@email.com"));
+
+        service.updateUserEmail(new EmailChange(credentials, "new_username@email.com"), null);
+
+        assertThat(service.retrieveUserEmail("username")).isEqualTo(new UserEmail("new_username@email.com"));
+
+        verify(repository, times(2)).findOptionalUserEmailByUsername("username");
+    }
+
+    @Test
+    public void failedUpdateKeepsCachedInfo() {
+        UserInfo userInfo = new UserInfo("a merchant");
+        UserInfo newUserInfo = new UserInfo("a buyer");
+
+        when(repository.findOptionalUserInfoByUsername("username")).thenReturn(Optional.of(userInfo));
+        when(repository.updateUserInfo("username", newUserInfo)).thenReturn(0);
+
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(userInfo);
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> service.updateUserInfo(new UserInfoChange("username", newUserInfo), null));
+
+        assertThat(service.retrieveUserInfo("username")).isEqualTo(userInfo);
+
+        verify(repository, times(1)).findOptionalUserInfoByUsername("username");
+    }
+}
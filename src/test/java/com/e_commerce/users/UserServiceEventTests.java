@@ -1,10 +1,17 @@
 package com.e_commerce.users;
 
-import com.e_commerce.users.events.EmailUpdate;
-import com.e_commerce.users.events.EventSender;
+import com.e_commerce.users.events.*;
+import com.e_commerce.users.indexes.UsernameFilter;
+import com.e_commerce.users.indexes.UsernameIndex;
 import com.e_commerce.users.model.EmailChange;
+import com.e_commerce.users.model.StoredCredentials;
 import com.e_commerce.users.model.UserCredentials;
+import com.e_commerce.users.reads.BoundedReadExecutor;
+import com.e_commerce.users.reads.ReadCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
@@ -25,6 +32,10 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.testcontainers.containers.RabbitMQContainer;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
@@ -45,6 +56,7 @@ public class UserServiceEventTests {
     public static class RabbitConfiguration {
         private final UserRepository mockedRepository = mock(UserRepository.class);
         private final PasswordEncoder mockedPasswordEncoder = mock(PasswordEncoder.class);
+        private final OutboxEventRepository mockedOutboxRepository = mock(OutboxEventRepository.class);
 
         @Bean
         public UserRepository mockedRepository() {
@@ -56,6 +68,11 @@ public class UserServiceEventTests {
             return mockedPasswordEncoder;
         }
 
+        @Bean
+        public OutboxEventRepository mockedOutboxRepository() {
+            return mockedOutboxRepository;
+        }
+
         @Bean
         public Listener buildListener() {
             return new Listener();
@@ -63,7 +80,12 @@ public class UserServiceEventTests {
 
         @Bean
         public ConnectionFactory connectionFactory(RabbitMQContainer container) {
-            return new CachingConnectionFactory(container.getHost(), container.getAmqpPort());
+            CachingConnectionFactory connectionFactory = new CachingConnectionFactory(
+                    container.getHost(), container.getAmqpPort());
+
+            connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+
+            return connectionFactory;
         }
 
         @Bean
@@ -87,9 +109,14 @@ public class UserServiceEventTests {
             return new Jackson2JsonMessageConverter();
         }
 
+        @Bean
+        public EventMessageConverter eventMessageConverter() {
+            return new EventMessageConverter(EventMessageConverter.JSON_CONTENT_TYPE, EmailUpdate.class);
+        }
+
         @Bean
         public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
-                                             Jackson2JsonMessageConverter messageConverter) {
+                                             EventMessageConverter messageConverter) {
             RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
 
             rabbitTemplate.setMessageConverter(messageConverter);
@@ -98,10 +125,24 @@ public class UserServiceEventTests {
         }
 
         @Bean
-        public UserService userService(RabbitTemplate rabbitTemplate,
-                                       Jackson2JsonMessageConverter messageConverter) {
-            return new UserService(mockedRepository, mockedPasswordEncoder, new EventSender(
-                    rabbitTemplate, messageConverter));
+        public BatchingEventPublisher batchingPublisher(RabbitTemplate rabbitTemplate) {
+            return new BatchingEventPublisher(rabbitTemplate, new SimpleMeterRegistry(),
+                    50, 1000, Duration.ofSeconds(5));
+        }
+
+        @Bean
+        public EventSender eventSender(RabbitTemplate rabbitTemplate,
+                                       EventMessageConverter messageConverter,
+                                       BatchingEventPublisher batchingPublisher) {
+            return new EventSender(rabbitTemplate, messageConverter, batchingPublisher);
+        }
+
+        @Bean
+        public UserService userService(EventMessageConverter messageConverter) {
+            return new UserService(mockedRepository, mockedPasswordEncoder,
+                    new EventOutbox(mockedOutboxRepository, messageConverter),
+                    mock(UsernameFilter.class), mock(UsernameIndex.class), mock(Validator.class), mock(BoundedReadExecutor.class),
+                    new ReadCoalescer(new SimpleMeterRegistry()), new SimpleMeterRegistry());
         }
 
         @Bean
@@ -127,9 +168,15 @@ public class UserServiceEventTests {
     @Autowired
     private PasswordEncoder mockedPasswordEncoder;
 
+    @Autowired
+    private OutboxEventRepository mockedOutboxRepository;
+
     @Autowired
     private UserService service;
 
+    @Autowired
+    private EventSender eventSender;
+
     @Autowired
     private RabbitListenerTestHarness harness;
 
@@ -138,8 +185,10 @@ public class UserServiceEventTests {
         Listener listener = harness.getSpy("receiveEmailUpdate");
         assertThat(listener).isNotNull();
 
-        when(mockedPasswordEncoder.encode("Password1@")).thenReturn("gibberish");
-        when(mockedRepository.updateUserEmail("username", "gibberish", "new_username@email.com"))
+        when(mockedRepository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 0L)));
+        when(mockedPasswordEncoder.matches("Password1@", "gibberish")).thenReturn(true);
+        when(mockedRepository.updateUserEmail(1L, 0L, "new_username@email.com", "gibberish"))
                 .thenReturn(1);
 
         LatchCountDownAndCallRealMethodAnswer answer = harness.getLatchAnswerFor("receiveEmailUpdate", 1);
@@ -148,7 +197,17 @@ public class UserServiceEventTests {
         EmailChange change = new EmailChange(
                 new UserCredentials("username", "Password1@"), "new_username@email.com");
 
-        service.updateUserEmail(change);
+        service.updateUserEmail(change, null);
+
+        ArgumentCaptor<OutboxEvent> outboxEvent = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(mockedOutboxRepository, times(1)).save(outboxEvent.capture());
+
+        OutboxEvent event = outboxEvent.getValue();
+        event.setId(1L);
+
+        assertThat(event.getRoutingKey()).isEqualTo(EventSender.RABBIT_UPDATE_EMAIL_ROUTING_KEY);
+        assertThat(eventSender.sendOutboxEvents(List.of(event), Duration.ofSeconds(10)))
+                .containsExactly(event);
 
         assertTrue(answer.await(10));
 
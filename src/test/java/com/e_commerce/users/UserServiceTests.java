@@ -1,19 +1,47 @@
 package com.e_commerce.users;
 
 import com.e_commerce.users.events.EmailUpdate;
-import com.e_commerce.users.events.EventSender;
+import com.e_commerce.users.events.EventOutbox;
 import com.e_commerce.users.exceptions.DuplicatedUsernameException;
+import com.e_commerce.users.exceptions.PasswordHashingUnavailableException;
 import com.e_commerce.users.exceptions.UserNotFoundException;
+import com.e_commerce.users.exceptions.UserPreconditionFailedException;
+import com.e_commerce.users.exceptions.UserUpdateConflictException;
 import com.e_commerce.users.exceptions.UsernameNotFoundException;
+import com.e_commerce.users.indexes.UsernameFilter;
+import com.e_commerce.users.indexes.UsernameIndex;
 import com.e_commerce.users.model.*;
+import com.e_commerce.users.reads.BoundedReadExecutor;
+import com.e_commerce.users.reads.ReadCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,13 +56,32 @@ public class UserServiceTests {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private EventSender eventSender;
+    private EventOutbox eventOutbox;
+
+    @Mock
+    private UsernameFilter usernameFilter;
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private BoundedReadExecutor readExecutor;
+
+    @Spy
+    private ReadCoalescer readCoalescer = new ReadCoalescer(new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private UserService service;
 
     @Test
     public void registersUser() {
+        when(usernameFilter.mightContain("username")).thenReturn(true);
         when(repository.existsUserByUsername("username")).thenReturn(false);
 
         User user = new User("username", "username@email.com", "a merchant", "password");
@@ -42,11 +89,27 @@ public class UserServiceTests {
 
         verify(repository, times(1)).existsUserByUsername("username");
         verify(passwordEncoder, times(1)).encode("password");
-        verify(repository, times(1)).save(user);
+        verify(repository, times(1)).saveAndFlush(user);
+        verify(usernameFilter, times(1)).add("username");
+        verify(usernameIndex, times(1)).add("username");
+    }
+
+    @Test
+    public void registersUserWithoutQueryingAbsentUsername() {
+        when(usernameFilter.mightContain("username")).thenReturn(false);
+
+        User user = new User("username", "username@email.com", "a merchant", "password");
+        service.registerUser(user);
+
+        verify(repository, times(0)).existsUserByUsername("username");
+        verify(passwordEncoder, times(1)).encode("password");
+        verify(repository, times(1)).saveAndFlush(user);
+        verify(usernameFilter, times(1)).add("username");
     }
 
     @Test
     public void userAlreadyExists() {
+        when(usernameFilter.mightContain("username")).thenReturn(true);
         when(repository.existsUserByUsername("username")).thenReturn(true);
 
         User user = new User("username", "username@email.com", "a merchant", "password");
@@ -54,7 +117,147 @@ public class UserServiceTests {
 
         verify(repository, times(1)).existsUserByUsername("username");
         verify(passwordEncoder, times(0)).encode("password");
-        verify(repository, times(0)).save(user);
+        verify(repository, times(0)).saveAndFlush(user);
+        verify(usernameFilter, times(0)).add("username");
+        verify(usernameIndex, times(0)).add("username");
+    }
+
+    @Test
+    public void userAlreadyExistsWhenInserted() {
+        when(usernameFilter.mightContain("username")).thenReturn(false);
+
+        User user = new User("username", "username@email.com", "a merchant", "password");
+
+        when(repository.saveAndFlush(user)).thenThrow(duplicatedUsername());
+
+        assertThrows(DuplicatedUsernameException.class, () -> service.registerUser(user));
+
+        verify(repository, times(1)).saveAndFlush(user);
+        verify(usernameFilter, times(0)).add("username");
+    }
+
+    @Test
+    public void registrationFilterLookupsAreCounted() {
+        when(usernameFilter.isWarmed()).thenReturn(true);
+        when(usernameFilter.mightContain("username")).thenReturn(false);
+        when(usernameFilter.mightContain("existing")).thenReturn(true);
+        when(repository.existsUserByUsername("existing")).thenReturn(true);
+
+        service.registerUser(new User("username", "username@email.com", "a merchant", "password"));
+        assertThrows(DuplicatedUsernameException.class,
+                () -> service.registerUser(new User("existing", "existing@email.com", "a merchant", "password")));
+
+        assertThat(meterRegistry.get("users.username.filter.lookups")
+                .tag("caller", "registration").tag("result", "absent").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("users.username.filter.lookups")
+                .tag("caller", "registration").tag("result", "present").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void registersUsersInBulk() {
+        User user = new User("username", "username@email.com", "a merchant", "password");
+        User invalidUser = new User("user@name", "username@email.com", "a merchant", "password");
+        User repeatedUser = new User("username", "other@email.com", "a buyer", "password");
+        User existingUser = new User("existing", "existing@email.com", "a merchant", "password");
+        User absentUser = new User("absent", "absent@email.com", "a merchant", "password");
+
+        ConstraintViolation<User> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage())
+                .thenReturn("Username can only contain lower case letters, numbers, dots and underscores.");
+        when(validator.validate(invalidUser)).thenReturn(Set.of(violation));
+
+        when(usernameFilter.mightContain("username")).thenReturn(true);
+        when(usernameFilter.mightContain("existing")).thenReturn(true);
+        when(usernameFilter.mightContain("absent")).thenReturn(false);
+        when(repository.findExistingUsernames(List.of("username", "existing"))).thenReturn(Set.of("existing"));
+        when(passwordEncoder.encode("password")).thenReturn("gibberish");
+
+        List<RegistrationResult> results = service.registerUsers(
+                List.of(user, invalidUser, repeatedUser, existingUser, absentUser));
+
+        assertThat(results).containsExactly(
+                RegistrationResult.registered("username"),
+                RegistrationResult.invalid("user@name",
+                        List.of("Username can only contain lower case letters, numbers, dots and underscores.")),
+                RegistrationResult.duplicated("username"),
+                RegistrationResult.duplicated("existing"),
+                RegistrationResult.registered("absent"));
+
+        verify(repository, times(1)).findExistingUsernames(List.of("username", "existing"));
+        verify(passwordEncoder, times(2)).encode("password");
+        verify(repository, times(1)).saveAll(List.of(user, absentUser));
+        verify(usernameFilter, times(1)).add("username");
+        verify(usernameFilter, times(1)).add("absent");
+        verify(usernameFilter, times(0)).add("existing");
+        verify(usernameIndex, times(1)).add("username");
+        verify(usernameIndex, times(1)).add("absent");
+        verify(usernameIndex, times(0)).add("existing");
+    }
+
+    @Test
+    public void bulkRegistrationSkipsExistenceQueryForAbsentUsernames() {
+        User user = new User("username", "username@email.com", "a merchant", "password");
+
+        when(usernameFilter.mightContain("username")).thenReturn(false);
+
+        assertThat(service.registerUsers(List.of(user)))
+                .containsExactly(RegistrationResult.registered("username"));
+
+        verify(repository, times(0)).findExistingUsernames(anyCollection());
+        verify(repository, times(1)).saveAll(List.of(user));
+    }
+
+    @Test
+    public void bulkRegistrationReportsUsernamesTakenConcurrently() {
+        User user = new User("username", "username@email.com", "a merchant", "password");
+        User takenUser = new User("taken", "taken@email.com", "a merchant", "password");
+
+        when(usernameFilter.mightContain(anyString())).thenReturn(false);
+        when(passwordEncoder.encode("password")).thenReturn("gibberish");
+        when(repository.saveAll(List.of(user, takenUser)))
+                .thenThrow(new DataIntegrityViolationException("duplicated"));
+        when(repository.saveAndFlush(takenUser)).thenThrow(duplicatedUsername());
+
+        assertThat(service.registerUsers(List.of(user, takenUser)))
+                .containsExactly(RegistrationResult.registered("username"), RegistrationResult.duplicated("taken"));
+
+        verify(repository, times(1)).saveAndFlush(user);
+        verify(repository, times(1)).saveAndFlush(takenUser);
+        verify(usernameFilter, times(1)).add("username");
+        verify(usernameFilter, times(0)).add("taken");
+        verify(usernameIndex, times(1)).add("username");
+        verify(usernameIndex, times(0)).add("taken");
+    }
+
+    @Test
+    public void bulkRegistrationDoesNotReportOtherViolationsAsDuplicates() {
+        User user = new User("username", "username@email.com", "a merchant", "password");
+
+        when(passwordEncoder.encode("password")).thenReturn("gibberish");
+        when(repository.saveAll(List.of(user))).thenThrow(new DataIntegrityViolationException("too long"));
+        when(repository.saveAndFlush(user)).thenThrow(new DataIntegrityViolationException("too long",
+                new ConstraintViolationException("too long", null, ConstraintKind.OTHER, null)));
+
+        assertThat(service.registerUsers(List.of(user)))
+                .containsExactly(RegistrationResult.invalid("username", List.of("User could not be stored.")));
+
+        verify(usernameFilter, times(0)).add("username");
+    }
+
+    @Test
+    public void bulkRegistrationRegistersNobodyWhenHashingIsSaturated() {
+        User user = new User("username", "username@email.com", "a merchant", "password");
+
+        when(passwordEncoder.encode("password")).thenThrow(new PasswordHashingUnavailableException());
+
+        PasswordHashingUnavailableException e = assertThrows(PasswordHashingUnavailableException.class,
+                () -> service.registerUsers(List.of(user)));
+
+        assertThat(e.getMessage()).contains("no user was registered");
+        verify(repository, times(0)).saveAll(anyList());
     }
 
     @Test
@@ -77,9 +280,225 @@ public class UserServiceTests {
         verify(repository, times(1)).findOptionalUserInfoByUsername("username");
     }
 
+    private void readsRunInline() {
+        when(readExecutor.supply(any())).thenAnswer(invocation -> {
+            try {
+                return CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    @Test
+    public void retrieveUserInfoAsync() {
+        var userInfo = new UserInfo("nobody");
+
+        readsRunInline();
+        when(repository.findOptionalUserInfoByUsername("username")).thenReturn(Optional.of(userInfo));
+
+        assertThat(service.retrieveUserInfoAsync("username")).isCompletedWithValue(userInfo);
+
+        verify(readExecutor, times(1)).supply(any());
+    }
+
+    @Test
+    public void userIsNotRegisteredWhenReturningHisInfoAsync() {
+        readsRunInline();
+        when(repository.findOptionalUserInfoByUsername("username")).thenReturn(Optional.empty());
+
+        assertThat(service.retrieveUserInfoAsync("username"))
+                .failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    public void concurrentUserInfoReadsAreCoalesced() {
+        var userInfo = new UserInfo("nobody");
+        CompletableFuture<UserInfo> read = new CompletableFuture<>();
+
+        when(readExecutor.<UserInfo>supply(any())).thenReturn(read);
+
+        CompletableFuture<UserInfo> first = service.retrieveUserInfoAsync("username");
+        CompletableFuture<UserInfo> second = service.retrieveUserInfoAsync("username");
+
+        read.complete(userInfo);
+
+        assertThat(first).isCompletedWithValue(userInfo);
+        assertThat(second).isCompletedWithValue(userInfo);
+
+        verify(readExecutor, times(1)).supply(any());
+    }
+
+    @Test
+    public void retrieveUserEmailAsync() {
+        readsRunInline();
+        when(repository.findOptionalUserEmailByUsername("username"))
+                .thenReturn(Optional.of(new UserEmail("username@email.com")));
+
+        assertThat(service.retrieveUserEmailAsync("username"))
+                .isCompletedWithValue(new UserEmail("username@email.com"));
+    }
+
+    @Test
+    public void absentUsernameIsAvailableWithoutQuerying() {
+        when(usernameFilter.isAuthoritative()).thenReturn(true);
+        when(usernameFilter.mightContain("username")).thenReturn(false);
+
+        assertThat(service.checkUsernameAvailability("username", 3))
+                .isEqualTo(new UsernameAvailability("username", true, List.of()));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void absentUsernameIsConfirmedWhenFilterIsNotAuthoritative() {
+        when(usernameFilter.isAuthoritative()).thenReturn(false);
+        when(repository.findExistingUsernames(anyCollection())).thenReturn(Set.of("username"));
+
+        assertThat(service.checkUsernameAvailability("username", 0))
+                .isEqualTo(new UsernameAvailability("username", false, List.of()));
+
+        verify(repository, times(1)).findExistingUsernames(List.of("username"));
+        verify(usernameFilter, times(0)).mightContain(anyString());
+    }
+
+    @Test
+    public void availabilityFilterLookupsAreCounted() {
+        when(usernameFilter.isWarmed()).thenReturn(true);
+        when(usernameFilter.isAuthoritative()).thenReturn(true);
+        when(usernameFilter.mightContain("username")).thenReturn(false);
+
+        service.checkUsernameAvailability("username", 0);
+
+        assertThat(meterRegistry.get("users.username.filter.lookups")
+                .tag("caller", "availability").tag("result", "absent").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void falsePositiveUsernameIsAvailable() {
+        when(usernameFilter.mightContain(anyString())).thenReturn(true);
+        when(repository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+
+        assertThat(service.checkUsernameAvailability("username", 3).available()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void takenUsernameHasFreeAlternatives() {
+        when(usernameFilter.mightContain(anyString())).thenReturn(true);
+        when(repository.findExistingUsernames(anyCollection())).thenReturn(Set.of("username", "username1"));
+
+        UsernameAvailability availability = service.checkUsernameAvailability("username", 3);
+
+        assertThat(availability.available()).isFalse();
+        assertThat(availability.alternatives())
+                .hasSize(3)
+                .doesNotHaveDuplicates()
+                .doesNotContain("username", "username1")
+                .allMatch(alternative -> alternative.startsWith("username"));
+
+        ArgumentCaptor<Collection<String>> checked = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(1)).findExistingUsernames(checked.capture());
+        assertThat(checked.getValue()).contains("username").hasSize(13);
+    }
+
+    @Test
+    public void alternativesOfLongestUsernameAreValid() {
+        String username = "u".repeat(64);
+
+        when(usernameFilter.mightContain(anyString())).thenReturn(true);
+        when(repository.findExistingUsernames(anyCollection())).thenReturn(Set.of(username));
+
+        assertThat(service.checkUsernameAvailability(username, 5).alternatives())
+                .hasSize(5)
+                .allMatch(alternative -> alternative.length() <= 64);
+    }
+
+    @Test
+    public void usernamesAreSuggestedFromIndex() {
+        when(usernameIndex.suggest("user", 10)).thenReturn(List.of("username", "username2"));
+
+        assertThat(service.suggestUsernames("user", 10)).containsExactly("username", "username2");
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void usersAreListedWithNextCursor() {
+        when(repository.findUserSummariesAfter("", PageRequest.ofSize(3))).thenReturn(List.of(
+                new UserSummary("a_username", "a_username@email.com", "a merchant"),
+                new UserSummary("b_username", "b_username@email.com", "a merchant"),
+                new UserSummary("c_username", "c_username@email.com", "a merchant")));
+
+        UserPage page = service.listUsers(null, null, 2);
+
+        assertThat(page.users()).extracting(UserSummary::username).containsExactly("a_username", "b_username");
+        assertThat(page.next()).isEqualTo("b_username");
+    }
+
+    @Test
+    public void lastPageHasNoNextCursor() {
+        when(repository.findUserSummariesAfter("b_username", PageRequest.ofSize(3))).thenReturn(List.of(
+                new UserSummary("c_username", "c_username@email.com", "a merchant")));
+
+        UserPage page = service.listUsers(null, "b_username", 2);
+
+        assertThat(page.users()).extracting(UserSummary::username).containsExactly("c_username");
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    public void usersAreListedByEscapedPrefix() {
+        when(repository.findUserSummariesLikeAfter("user!_n!%!!%", "", PageRequest.ofSize(101)))
+                .thenReturn(List.of());
+
+        assertThat(service.listUsers("user_n%!", null, 100).users()).isEmpty();
+
+        verify(repository, times(1)).findUserSummariesLikeAfter("user!_n!%!!%", "", PageRequest.ofSize(101));
+    }
+
+    @Test
+    public void usersInfoIsRetrievedInChunks() {
+        List<String> usernames = IntStream.range(0, 1200)
+                .mapToObj(i -> "username" + i)
+                .collect(Collectors.toCollection(ArrayList::new));
+        usernames.add("username0");
+        usernames.add(null);
+
+        when(repository.findUserInfoEntriesByUsernames(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0)
+                        .stream()
+                        .filter(username -> !username.equals("username1"))
+                        .map(username -> new UserInfoEntry(username, "a merchant"))
+                        .toList());
+
+        BatchGetResult<UserInfo> result = service.retrieveUsersInfo(usernames);
+
+        assertThat(result.found()).hasSize(1199);
+        assertThat(result.found()).containsEntry("username0", new UserInfo("a merchant"));
+        assertThat(result.notFound()).containsExactly("username1");
+
+        verify(repository, times(3)).findUserInfoEntriesByUsernames(anyCollection());
+    }
+
+    @Test
+    public void usersEmailIsRetrieved() {
+        when(repository.findUserEmailEntriesByUsernames(List.of("username", "other_username")))
+                .thenReturn(List.of(new UserEmailEntry("username", "username@email.com")));
+
+        BatchGetResult<UserEmail> result = service.retrieveUsersEmail(List.of("username", "other_username"));
+
+        assertThat(result.found()).containsExactly(Map.entry("username", new UserEmail("username@email.com")));
+        assertThat(result.notFound()).containsExactly("other_username");
+    }
+
     @Test
     public void retrieveUserEmail() {
-        when(repository.findOptionalUserEmailByUsername("username")).thenReturn(Optional.of("username@email.com"));
+        when(repository.findOptionalUserEmailByUsername("username"))
+                .thenReturn(Optional.of(new UserEmail("username@email.com")));
 
         assertThat(service.retrieveUserEmail("username")).isEqualTo(new UserEmail("username@email.com"));
 
@@ -99,70 +518,164 @@ public class UserServiceTests {
     public void userPasswordIsUpdated() {
         UserCredentials credentials = new UserCredentials("username", "password");
 
-        when(passwordEncoder.encode("password")).thenReturn("gibberish");
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 0L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(true);
         when(passwordEncoder.encode("new_password")).thenReturn("new_gibberish");
-        when(repository.updateUserPassword("username", "gibberish", "new_gibberish"))
-                .thenReturn(1);
+        when(repository.updateUserPassword(1L, 0L, "new_gibberish")).thenReturn(1);
 
-        service.updateUserPassword(new PasswordChange(credentials, "new_password"));
+        service.updateUserPassword(new PasswordChange(credentials, "new_password"), null);
 
-        verify(passwordEncoder, times(1)).encode("password");
+        verify(passwordEncoder, times(1)).matches("password", "gibberish");
+        verify(passwordEncoder, times(0)).encode("password");
         verify(passwordEncoder, times(1)).encode("new_password");
-        verify(repository, times(1))
-                .updateUserPassword("username", "gibberish", "new_gibberish");
+        verify(repository, times(1)).updateUserPassword(1L, 0L, "new_gibberish");
     }
 
     @Test
-    public void userPasswordUpdateFailsOnInvalidUser() {
+    public void userPasswordUpdateFailsOnUnknownUser() {
         UserCredentials credentials = new UserCredentials("username", "password");
 
-        when(passwordEncoder.encode("password")).thenReturn("gibberish");
-        when(passwordEncoder.encode("new_password")).thenReturn("new_gibberish");
-        when(repository.updateUserPassword("username", "gibberish", "new_gibberish"))
-                .thenReturn(0);
+        when(repository.findOptionalStoredCredentialsByUsername("username")).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class,
-                () -> service.updateUserPassword(new PasswordChange(credentials, "new_password")));
+                () -> service.updateUserPassword(new PasswordChange(credentials, "new_password"), null));
 
-        verify(passwordEncoder, times(1)).encode("password");
-        verify(passwordEncoder, times(1)).encode("new_password");
-        verify(repository, times(1))
-                .updateUserPassword("username", "gibberish", "new_gibberish");
+        verify(passwordEncoder, times(1)).matches(eq("password"), any());
+        verify(passwordEncoder, times(0)).encode("new_password");
+        verify(repository, times(0)).updateUserPassword(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    public void userPasswordUpdateFailsOnWrongPassword() {
+        UserCredentials credentials = new UserCredentials("username", "password");
+
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 0L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class,
+                () -> service.updateUserPassword(new PasswordChange(credentials, "new_password"), null));
+
+        verify(passwordEncoder, times(0)).encode("new_password");
+        verify(repository, times(0)).updateUserPassword(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    public void userPasswordUpdateFailsOnConcurrentUpdate() {
+        UserCredentials credentials = new UserCredentials("username", "password");
+
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 0L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(true);
+        when(passwordEncoder.encode("new_password")).thenReturn("new_gibberish");
+        when(repository.updateUserPassword(1L, 0L, "new_gibberish")).thenReturn(0);
+
+        assertThrows(UserUpdateConflictException.class,
+                () -> service.updateUserPassword(new PasswordChange(credentials, "new_password"), null));
+    }
+
+    @Test
+    public void userPasswordUpdateFailsOnVersionMismatch() {
+        UserCredentials credentials = new UserCredentials("username", "password");
+
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 1L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(true);
+
+        assertThrows(UserPreconditionFailedException.class,
+                () -> service.updateUserPassword(new PasswordChange(credentials, "new_password"), 0L));
+
+        verify(passwordEncoder, times(0)).encode("new_password");
+        verify(repository, times(0)).updateUserPassword(anyLong(), anyLong(), anyString());
     }
 
     @Test
     public void userEmailIsUpdated() {
         UserCredentials credentials = new UserCredentials("username", "password");
 
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 0L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("gibberish")).thenReturn(false);
+        when(repository.updateUserEmail(1L, 0L, "new_username@email.com", "gibberish"))
+                .thenReturn(1);
+
+        service.updateUserEmail(new EmailChange(credentials, "new_username@email.com"), null);
+
+        verify(passwordEncoder, times(0)).encode("password");
+        verify(repository, times(1))
+                .updateUserEmail(1L, 0L, "new_username@email.com", "gibberish");
+        verify(eventOutbox, times(1))
+                .enqueueEmailUpdate(new EmailUpdate("username", "new_username@email.com"));
+    }
+
+    @Test
+    public void outdatedPasswordHashIsUpgradedOnEmailUpdate() {
+        UserCredentials credentials = new UserCredentials("username", "password");
+
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "old_gibberish", 0L)));
+        when(passwordEncoder.matches("password", "old_gibberish")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("old_gibberish")).thenReturn(true);
         when(passwordEncoder.encode("password")).thenReturn("gibberish");
-        when(repository.updateUserEmail("username", "gibberish", "new_username@email.com"))
+        when(repository.updateUserEmail(1L, 0L, "new_username@email.com", "gibberish"))
                 .thenReturn(1);
 
-        service.updateUserEmail(new EmailChange(credentials, "new_username@email.com"));
+        service.updateUserEmail(new EmailChange(credentials, "new_username@email.com"), null);
 
         verify(passwordEncoder, times(1)).encode("password");
         verify(repository, times(1))
-                .updateUserEmail("username", "gibberish", "new_username@email.com");
-        verify(eventSender, times (1))
-                .sendEmailUpdate(new EmailUpdate("username", "new_username@email.com"));
+                .updateUserEmail(1L, 0L, "new_username@email.com", "gibberish");
     }
 
     @Test
     public void userEmailUpdateFailsOnInvalidUser() {
         UserCredentials credentials = new UserCredentials("username", "password");
 
-        when(passwordEncoder.encode("password")).thenReturn("gibberish");
-        when(repository.updateUserEmail("username", "gibberish", "new_username@email.com"))
-                .thenReturn(0);
+        when(repository.findOptionalStoredCredentialsByUsername("username")).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class,
-                () -> service.updateUserEmail(new EmailChange(credentials, "new_username@email.com")));
+                () -> service.updateUserEmail(new EmailChange(credentials, "new_username@email.com"), null));
 
-        verify(passwordEncoder, times(1)).encode("password");
-        verify(repository, times(1))
-                .updateUserEmail("username", "gibberish", "new_username@email.com");
-        verify(eventSender, times (0))
-                .sendEmailUpdate(new EmailUpdate("username", "new_username@email.com"));
+        verify(repository, times(0))
+                .updateUserEmail(anyLong(), anyLong(), anyString(), anyString());
+        verify(eventOutbox, times(0))
+                .enqueueEmailUpdate(new EmailUpdate("username", "new_username@email.com"));
+    }
+
+    @Test
+    public void userEmailUpdateFailsOnConcurrentUpdate() {
+        UserCredentials credentials = new UserCredentials("username", "password");
+
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 0L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(true);
+        when(repository.updateUserEmail(1L, 0L, "new_username@email.com", "gibberish"))
+                .thenReturn(0);
+
+        assertThrows(UserUpdateConflictException.class,
+                () -> service.updateUserEmail(new EmailChange(credentials, "new_username@email.com"), null));
+
+        verify(eventOutbox, times(0))
+                .enqueueEmailUpdate(new EmailUpdate("username", "new_username@email.com"));
+    }
+
+    @Test
+    public void userEmailUpdateFailsOnVersionMismatch() {
+        UserCredentials credentials = new UserCredentials("username", "password");
+
+        when(repository.findOptionalStoredCredentialsByUsername("username"))
+                .thenReturn(Optional.of(new StoredCredentials(1L, "gibberish", 1L)));
+        when(passwordEncoder.matches("password", "gibberish")).thenReturn(true);
+
+        assertThrows(UserPreconditionFailedException.class,
+                () -> service.updateUserEmail(new EmailChange(credentials, "new_username@email.com"), 0L));
+
+        verify(repository, times(0))
+                .updateUserEmail(anyLong(), anyLong(), anyString(), anyString());
+        verify(eventOutbox, times(0))
+                .enqueueEmailUpdate(new EmailUpdate("username", "new_username@email.com"));
     }
 
     @Test
@@ -171,7 +684,7 @@ public class UserServiceTests {
 
         when(repository.updateUserInfo("username", userInfo)).thenReturn(1);
 
-        service.updateUserInfo(new UserInfoChange("username", userInfo));
+        service.updateUserInfo(new UserInfoChange("username", userInfo), null);
 
         verify(repository, times(1)).updateUserInfo("username", userInfo);
     }
@@ -182,8 +695,47 @@ public class UserServiceTests {
 
         when(repository.updateUserInfo("username", userInfo)).thenReturn(0);
 
-        assertThrows(UsernameNotFoundException.class, () -> service.updateUserInfo(new UserInfoChange("username", userInfo)));
+        assertThrows(UsernameNotFoundException.class, () -> service.updateUserInfo(new UserInfoChange("username", userInfo), null));
 
         verify(repository, times(1)).updateUserInfo("username", userInfo);
     }
+
+    @Test
+    public void userInfoIsUpdatedWithVersion() {
+        UserInfo userInfo = new UserInfo("nobody");
+
+        when(repository.updateUserInfo("username", 2L, userInfo)).thenReturn(1);
+
+        service.updateUserInfo(new UserInfoChange("username", userInfo), 2L);
+
+        verify(repository, times(1)).updateUserInfo("username", 2L, userInfo);
+        verify(repository, times(0)).updateUserInfo("username", userInfo);
+    }
+
+    @Test
+    public void userInfoUpdateFailsOnVersionMismatch() {
+        UserInfo userInfo = new UserInfo("nobody");
+
+        when(repository.updateUserInfo("username", 2L, userInfo)).thenReturn(0);
+        when(repository.existsUserByUsername("username")).thenReturn(true);
+
+        assertThrows(UserPreconditionFailedException.class,
+                () -> service.updateUserInfo(new UserInfoChange("username", userInfo), 2L));
+    }
+
+    @Test
+    public void userInfoUpdateWithVersionFailsOnUnknownUsername() {
+        UserInfo userInfo = new UserInfo("nobody");
+
+        when(repository.updateUserInfo("username", 2L, userInfo)).thenReturn(0);
+        when(repository.existsUserByUsername("username")).thenReturn(false);
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> service.updateUserInfo(new UserInfoChange("username", userInfo), 2L));
+    }
+
+    private static DataIntegrityViolationException duplicatedUsername() {
+        return new DataIntegrityViolationException("duplicated", new ConstraintViolationException("duplicated",
+                null, ConstraintKind.UNIQUE, "user." + User.USERNAME_CONSTRAINT));
+    }
 }
@@ -13,6 +13,7 @@ import org.junit.jupiter.params.provider.ArgumentsSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Random;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -79,4 +80,52 @@ public class UsernameConstraintValidatorTests {
         verify(constraintViolationBuilder, times(1))
                 .addConstraintViolation();
     }
+
+    private static String referenceViolation(String username) {
+        if (username == null || username.isEmpty()) {
+            return "Username must be provided.";
+        }
+        if (username.length() > 64) {
+            return "Username can only contain up to 64 characters.";
+        }
+        if (!username
+                .chars()
+                .allMatch(c -> (Character.isLetter(c) && Character.isLowerCase(c)) ||
+                        Character.isDigit(c) ||
+                        c == '.' || c == '_')) {
+            return "Username can only contain lower case letters, numbers, dots and underscores.";
+        }
+        if (username.contains("..")) {
+            return "Username cannot contain repeated dots.";
+        }
+
+        return null;
+    }
+
+    @Test
+    public void randomUsernamesMatchReferenceValidator() {
+        String alphabet = "abcxyz019._.-@ AZ\u00e9\u00df\u03a9\u0661\u00b2\ud83d\ude00";
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            char[] chars = new char[random.nextInt(70)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = random.nextInt(10) == 0
+                        ? (char) random.nextInt(Character.MAX_VALUE + 1)
+                        : alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String username = new String(chars);
+            String expected = referenceViolation(username);
+
+            clearInvocations(context, constraintViolationBuilder);
+
+            assertThat(validator.isValid(username, context)).isEqualTo(expected == null);
+
+            if (expected == null) {
+                verify(context, never()).buildConstraintViolationWithTemplate(anyString());
+            } else {
+                verify(context, times(1)).buildConstraintViolationWithTemplate(expected);
+            }
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.indexes.UsernameFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UsernameFilterTests {
+    @Mock
+    private UserRepository repository;
+
+    private UsernameFilter filter;
+
+    @BeforeEach
+    public void createUsernameFilter() {
+        filter = new UsernameFilter(repository, 10_000, 0.01, true);
+    }
+
+    @Test
+    public void everyUsernameMightBePresentBeforeWarming() {
+        assertThat(filter.isWarmed()).isFalse();
+        assertThat(filter.mightContain("username")).isTrue();
+    }
+
+    @Test
+    public void filterIsAuthoritativeOnlyOnceWarmed() {
+        when(repository.streamAllUsernames()).thenReturn(Stream.empty());
+
+        assertThat(filter.isAuthoritative()).isFalse();
+
+        filter.warm();
+
+        assertThat(filter.isAuthoritative()).isTrue();
+        assertThat(new UsernameFilter(repository, 10_000, 0.01, false).isAuthoritative()).isFalse();
+    }
+
+    @Test
+    public void warmedUsernamesArePresent() {
+        when(repository.streamAllUsernames()).thenReturn(Stream.of("username", "other_username"));
+
+        filter.warm();
+
+        assertThat(filter.isWarmed()).isTrue();
+        assertThat(filter.mightContain("username")).isTrue();
+        assertThat(filter.mightContain("other_username")).isTrue();
+    }
+
+    @Test
+    public void addedUsernameIsPresent() {
+        when(repository.streamAllUsernames()).thenReturn(Stream.empty());
+
+        filter.warm();
+
+        assertThat(filter.mightContain("username")).isFalse();
+
+        filter.add("username");
+
+        assertThat(filter.mightContain("username")).isTrue();
+    }
+
+    @Test
+    public void falsePositivesStayNearConfiguredProbability() {
+        when(repository.streamAllUsernames())
+                .thenReturn(IntStream.range(0, 10_000).mapToObj(i -> "username" + i));
+
+        filter.warm();
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .mapToObj(i -> "absent_username" + i)
+                .filter(filter::mightContain)
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
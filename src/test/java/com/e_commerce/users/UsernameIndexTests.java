@@ -0,0 +1,193 @@
+package com.e_commerce.users;
+
+import com.e_commerce.users.indexes.UsernameIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UsernameIndexTests {
+    @Mock
+    private UserRepository repository;
+
+    private MeterRegistry meterRegistry;
+
+    private UsernameIndex index;
+
+    @BeforeEach
+    public void createUsernameIndex() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new UsernameIndex(repository, meterRegistry, 4);
+    }
+
+    @Test
+    public void warmedUsernamesAreSuggestedInOrder() {
+        when(repository.streamAllUsernames())
+                .thenReturn(Stream.of("username2", "other_username", "username", "user.name", "username10"));
+
+        index.warm();
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.suggest("user", 10)).containsExactly("user.name", "username", "username10", "username2");
+        assertThat(index.suggest("username1", 10)).containsExactly("username10");
+        assertThat(index.suggest("absent", 10)).isEmpty();
+    }
+
+    @Test
+    public void suggestionsAreLimited() {
+        when(repository.streamAllUsernames())
+                .thenReturn(IntStream.range(0, 100).mapToObj(i -> "username" + i));
+
+        index.warm();
+
+        assertThat(index.suggest("username", 3)).containsExactly("username0", "username1", "username10");
+    }
+
+    @Test
+    public void addedUsernamesAreSuggestedBeforeAndAfterCompaction() {
+        when(repository.streamAllUsernames()).thenReturn(Stream.of("username1", "username3"));
+
+        index.warm();
+
+        index.add("username2");
+        index.add("username0");
+
+        assertThat(index.suggest("username", 10))
+                .containsExactly("username0", "username1", "username2", "username3");
+
+        index.add("username4");
+        index.add("username5");
+        index.compactWhenDue();
+
+        assertThat(index.suggest("username", 10))
+                .containsExactly("username0", "username1", "username2", "username3", "username4", "username5");
+        assertThat(index.size()).isEqualTo(6);
+    }
+
+    @Test
+    public void addedUsernamesAreCompactedOnlyWhenDue() {
+        when(repository.streamAllUsernames()).thenReturn(Stream.of("username1"));
+
+        index.warm();
+
+        index.add("username2");
+        index.add("username3");
+        index.add("username4");
+        index.compactWhenDue();
+
+        long memoryBytes = index.memoryBytes();
+
+        index.add("username5");
+
+        assertThat(index.memoryBytes()).isEqualTo(memoryBytes);
+
+        index.compactWhenDue();
+
+        assertThat(index.memoryBytes()).isGreaterThan(memoryBytes);
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.suggest("username", 10))
+                .containsExactly("username1", "username2", "username3", "username4", "username5");
+    }
+
+    @Test
+    public void compactionOnlyMergesSmallRuns() {
+        when(repository.streamAllUsernames())
+                .thenReturn(IntStream.range(0, 1_000).mapToObj(i -> "username" + i));
+
+        index.warm();
+
+        Stream.of("a1", "a2", "a3", "a4").forEach(index::add);
+        index.compactWhenDue();
+
+        assertThat(meterRegistry.get("users.username.index.runs").gauge().value()).isEqualTo(2);
+
+        Stream.of("b1", "b2", "b3", "b4").forEach(index::add);
+        index.compactWhenDue();
+
+        assertThat(meterRegistry.get("users.username.index.runs").gauge().value()).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(1_008);
+        assertThat(index.suggest("", 3)).containsExactly("a1", "a2", "a3");
+        assertThat(index.suggest("b", 10)).containsExactly("b1", "b2", "b3", "b4");
+    }
+
+    @Test
+    public void duplicatedUsernamesAreSuggestedOnce() {
+        when(repository.streamAllUsernames()).thenReturn(Stream.of("username"));
+
+        index.warm();
+
+        index.add("username");
+
+        assertThat(index.suggest("user", 10)).containsExactly("username");
+
+        index.compact();
+
+        assertThat(index.suggest("user", 10)).containsExactly("username");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void suggestionsMatchSortedSet() {
+        Random random = new Random(42);
+        String alphabet = "abz09._\u00e9\u00fc";
+        TreeSet<String> expected = new TreeSet<>();
+
+        while (expected.size() < 20_000) {
+            StringBuilder username = new StringBuilder();
+            for (int j = 0, length = 1 + random.nextInt(10); j < length; j++) {
+                username.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            expected.add(username.toString());
+        }
+
+        List<String> usernames = new ArrayList<>(expected);
+        Collections.shuffle(usernames, random);
+
+        when(repository.streamAllUsernames()).thenReturn(usernames.subList(0, 15_000).stream());
+
+        index = new UsernameIndex(repository, new SimpleMeterRegistry(), 256);
+        index.warm();
+        usernames.subList(15_000, usernames.size()).forEach(index::add);
+
+        for (int i = 0; i < 1_000; i++) {
+            String prefix = "" + alphabet.charAt(random.nextInt(alphabet.length())) +
+                    alphabet.charAt(random.nextInt(alphabet.length()));
+            List<String> matches = expected.tailSet(prefix)
+                    .stream()
+                    .takeWhile(username -> username.startsWith(prefix))
+                    .limit(20)
+                    .toList();
+
+            assertThat(index.suggest(prefix, 20)).isEqualTo(matches);
+        }
+    }
+
+    @Test
+    public void footprintIsReported() {
+        when(repository.streamAllUsernames())
+                .thenReturn(IntStream.range(0, 100_000).mapToObj(i -> "username" + i));
+
+        index.warm();
+
+        assertThat(index.memoryBytes()).isPositive().isLessThan(100_000 * 8L);
+        assertThat(meterRegistry.get("users.username.index.memory").gauge().value())
+                .isEqualTo(index.memoryBytes());
+        assertThat(meterRegistry.get("users.username.index.size").gauge().value()).isEqualTo(100_000);
+    }
+}